@@ -6,9 +6,7 @@ import com.sciencesakura.jjsonp.core.JJson;
 import com.sciencesakura.jjsonp.core.JsonValue;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.concurrent.Callable;
 import picocli.CommandLine;
@@ -26,7 +24,7 @@ public final class App implements Callable<Integer> {
   @Option(names = {"-e", "--expression"}, description = "Use EXPR as an expression.", paramLabel = "EXPR")
   private String expression;
 
-  @Option(names = "--buffer", description = "Use N bytes as a buffer.", paramLabel = "N", defaultValue = "8192")
+  @Option(names = "--buffer", description = "Use N bytes as a buffer for standard input.", paramLabel = "N", defaultValue = "8192")
   private int buffer;
 
   @Parameters(description = "JSON files to process.", paramLabel = "FILE")
@@ -49,7 +47,7 @@ public final class App implements Callable<Integer> {
       JJson.parse(System.in, buffer).ifPresent(json -> output(json, inst, fmt));
     } else {
       for (var f : files) {
-        JJson.parse(FileChannel.open(f, StandardOpenOption.READ), buffer).ifPresent(json -> output(json, inst, fmt));
+        JJson.parse(f).ifPresent(json -> output(json, inst, fmt));
       }
     }
     return 0;
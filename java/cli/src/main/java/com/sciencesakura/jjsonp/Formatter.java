@@ -7,6 +7,8 @@ import com.sciencesakura.jjsonp.core.JsonObject;
 import com.sciencesakura.jjsonp.core.JsonValue;
 import com.sciencesakura.jjsonp.core.Strings;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
 
 final class Formatter {
 
@@ -19,72 +21,91 @@ final class Formatter {
   }
 
   void format(JsonValue value) throws IOException {
-    format(value, 0);
-  }
-
-  private void format(JsonValue value, int level) throws IOException {
-    switch (value) {
-      case JsonArray a -> formatArray(a, level);
-      case JsonObject o -> formatObject(o, level);
-      default -> dest.append(value.toString());
+    // the arrays and objects being formatted, which are walked without recursion
+    var frames = new ArrayDeque<Frame>();
+    var next = value;
+    var level = 0;
+    while (true) {
+      if (next != null) {
+        switch (next) {
+          case JsonArray a when !a.isEmpty() -> {
+            dest.append('[');
+            var frame = new Frame(a, a.size(), null, level);
+            if (frame.size == 1) {
+              // a single element is written on the same line
+              frame.childLevel = level;
+            } else {
+              dest.append('\n');
+              appendIndent(frame.childLevel);
+            }
+            frames.push(frame);
+          }
+          case JsonObject o when o.size() != 0 -> {
+            dest.append('{').append('\n');
+            var frame = new Frame(o, o.size(), o.names(), level);
+            appendIndent(frame.childLevel);
+            frames.push(frame);
+          }
+          default -> dest.append(next.toString());
+        }
+        next = null;
+      }
+      var frame = frames.peek();
+      if (frame == null) {
+        return;
+      }
+      if (frame.index < frame.size) {
+        if (frame.index != 0) {
+          dest.append(",\n");
+          appendIndent(frame.childLevel);
+        }
+        if (frame.names == null) {
+          next = ((JsonArray) frame.container).get(frame.index);
+        } else {
+          var name = frame.names.get(frame.index);
+          dest.append(Strings.toQuoted(name)).append(": ");
+          next = ((JsonObject) frame.container).get(name);
+        }
+        level = frame.childLevel;
+        frame.index++;
+        continue;
+      }
+      frames.pop();
+      if (frame.childLevel != frame.level) {
+        dest.append('\n');
+        appendIndent(frame.level);
+      }
+      dest.append(frame.names == null ? ']' : '}');
     }
   }
 
-  private void formatArray(JsonArray array, int level) throws IOException {
-    dest.append('[');
-    var size = array.size();
-    if (size == 0) {
-      dest.append(']');
-      return;
-    }
-    if (size == 1) {
-      format(array.get(0), level);
-      dest.append(']');
-      return;
-    }
-    var nextLevel = level + 1;
-    dest.append('\n');
-    appendIndent(nextLevel);
-    for (var i = 0; i < size - 1; i++) {
-      format(array.get(i), nextLevel);
-      dest.append(",\n");
-      appendIndent(nextLevel);
+  private void appendIndent(int level) throws IOException {
+    for (var i = 0; i < level; i++) {
+      dest.append(INDENT);
     }
-    format(array.get(size - 1), nextLevel);
-    dest.append('\n');
-    appendIndent(level);
-    dest.append(']');
   }
 
-  private void formatObject(JsonObject object, int level) throws IOException {
-    dest.append('{');
-    var size = object.size();
-    if (size == 0) {
-      dest.append('}');
-      return;
-    }
-    var names = object.names();
-    var nextLevel = level + 1;
-    dest.append('\n');
-    appendIndent(nextLevel);
-    for (var i = 0; i < size - 1; i++) {
-      var name = names.get(i);
-      dest.append(Strings.toQuoted(name)).append(": ");
-      format(object.get(name), nextLevel);
-      dest.append(",\n");
-      appendIndent(nextLevel);
-    }
-    var name = names.get(size - 1);
-    dest.append(Strings.toQuoted(name)).append(": ");
-    format(object.get(name), nextLevel);
-    dest.append('\n');
-    appendIndent(level);
-    dest.append('}');
-  }
+  private static final class Frame {
 
-  private void appendIndent(int level) throws IOException {
-    for (var i = 0; i < level; i++) {
-      dest.append(INDENT);
+    final JsonValue container;
+
+    final int size;
+
+    // null for an array
+    final List<String> names;
+
+    final int level;
+
+    int childLevel;
+
+    int index;
+
+    Frame(JsonValue container, int size, List<String> names, int level) {
+      this.container = container;
+      this.size = size;
+      this.names = names;
+      this.level = level;
+      this.childLevel = level + 1;
     }
   }
 }
@@ -12,6 +12,7 @@ import com.sciencesakura.jjsonp.core.JsonInteger;
 import com.sciencesakura.jjsonp.core.JsonNull;
 import com.sciencesakura.jjsonp.core.JsonObject;
 import com.sciencesakura.jjsonp.core.JsonString;
+import com.sciencesakura.jjsonp.core.JsonValue;
 import java.io.IOException;
 import org.junit.jupiter.api.Test;
 
@@ -126,4 +127,42 @@ class FormatterTest {
           "b": 42
         }""");
   }
+
+  @Test
+  void formatNestedValues() throws IOException {
+    var json = new JsonArray(
+        new JsonObject(sequencedMapOf(
+            "a", new JsonArray(new JsonInteger(1)),
+            "b", new JsonArray(new JsonInteger(2), new JsonArray())
+        )),
+        new JsonArray(new JsonObject(sequencedMapOf("c", JsonNull.INSTANCE)))
+    );
+    var dest = new StringBuilder();
+    new Formatter(dest).format(json);
+    assertThat(dest).hasToString("""
+        [
+          {
+            "a": [1],
+            "b": [
+              2,
+              []
+            ]
+          },
+          [{
+            "c": null
+          }]
+        ]""");
+  }
+
+  @Test
+  void formatDeeplyNestedValues() throws IOException {
+    var depth = 100_000;
+    JsonValue json = new JsonArray();
+    for (var i = 0; i < depth; i++) {
+      json = new JsonArray(json);
+    }
+    var dest = new StringBuilder();
+    new Formatter(dest).format(json);
+    assertThat(dest).hasToString("[".repeat(depth + 1) + "]".repeat(depth + 1));
+  }
 }
@@ -0,0 +1,27 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+/**
+ * A source whose window is the caller's byte array itself, so nothing is copied.
+ */
+final class ArraySource extends Source {
+
+  ArraySource(byte[] bytes, int offset, int length) {
+    super(bytes, offset, offset + length);
+  }
+
+  /**
+   * Makes the window the given range of the array, for reusing this source.
+   */
+  void reset(byte[] bytes, int offset, int length) {
+    buffer = bytes;
+    position = offset;
+    limit = offset + length;
+  }
+
+  @Override
+  boolean fill() {
+    return false;
+  }
+}
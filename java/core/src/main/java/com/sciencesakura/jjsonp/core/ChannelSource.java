@@ -0,0 +1,55 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+final class ChannelSource extends Source {
+
+  private ReadableByteChannel channel;
+
+  private ByteBuffer view;
+
+  ChannelSource(ReadableByteChannel channel, int bufferSize) throws IOException {
+    super(new byte[bufferSize], 0, 0);
+    this.channel = channel;
+    fill();
+  }
+
+  /**
+   * Starts reading from the given channel, for reusing this source. The buffer is kept if it is of the given size.
+   */
+  void reset(ReadableByteChannel channel, int bufferSize) throws IOException {
+    if (buffer.length != bufferSize) {
+      buffer = new byte[bufferSize];
+    }
+    this.channel = channel;
+    position = 0;
+    limit = 0;
+    fill();
+  }
+
+  /**
+   * Drops the reference to the channel, for keeping this source for later use.
+   */
+  void clear() {
+    channel = null;
+  }
+
+  @Override
+  boolean fill() throws IOException {
+    compact();
+    if (view == null || view.array() != buffer) {
+      view = ByteBuffer.wrap(buffer);
+    }
+    view.limit(buffer.length).position(limit);
+    var n = channel.read(view);
+    if (n <= 0) {
+      return false;
+    }
+    limit += n;
+    return true;
+  }
+}
@@ -0,0 +1,144 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.math.BigInteger;
+
+/**
+ * Converts decimal numbers to the nearest doubles without going through strings.
+ *
+ * <p>Small numbers are converted exactly with a single floating-point operation (Clinger's fast path), and the
+ * others with the Eisel-Lemire algorithm, which multiplies the decimal significand by a 128-bit approximation of the
+ * power of five. Both are exactly correct; in the very rare case that the approximation is not precise enough, the
+ * conversion is rejected so that the caller can fall back on {@link Double#parseDouble(String)}.</p>
+ *
+ * @see <a href="https://arxiv.org/abs/2101.11408">Daniel Lemire, Number Parsing at a Gigabyte per Second</a>
+ */
+final class Doubles {
+
+  private static final int SMALLEST_POWER_OF_TEN = -342;
+
+  private static final int LARGEST_POWER_OF_TEN = 308;
+
+  private static final int MANTISSA_EXPLICIT_BITS = 52;
+
+  private static final int MINIMUM_EXPONENT = -1023;
+
+  private static final int INFINITE_POWER = 0x7FF;
+
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+  };
+
+  // the high and low 64 bits of the 128-bit approximations of 5^q for q from SMALLEST_POWER_OF_TEN
+  private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+  private Doubles() {
+  }
+
+  /**
+   * Returns the double nearest to {@code mantissa * 10^exponent}.
+   *
+   * @param mantissa the decimal significand as an unsigned value.
+   * @param exponent the decimal exponent.
+   * @return the nearest double, or {@link Double#NaN} if it could not be determined.
+   */
+  static double toDouble(long mantissa, int exponent) {
+    if (mantissa == 0 || exponent < SMALLEST_POWER_OF_TEN) {
+      return 0.0;
+    }
+    if (LARGEST_POWER_OF_TEN < exponent) {
+      return Double.POSITIVE_INFINITY;
+    }
+    if (-22 <= exponent && exponent <= 22 && Long.compareUnsigned(mantissa, 1L << 53) <= 0) {
+      // both the significand and the power of ten are exactly representable
+      var m = (double) mantissa;
+      return exponent < 0 ? m / POWERS_OF_TEN[-exponent] : m * POWERS_OF_TEN[exponent];
+    }
+    return eiselLemire(mantissa, exponent);
+  }
+
+  private static double eiselLemire(long mantissa, int q) {
+    var lz = Long.numberOfLeadingZeros(mantissa);
+    var w = mantissa << lz;
+    var index = 2 * (q - SMALLEST_POWER_OF_TEN);
+    var hi = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+    var lo = w * POWERS_OF_FIVE[index];
+    // 55 bits of precision are needed: the explicit bits, the implicit bit, the rounding bit and the upper bit
+    var precisionMask = -1L >>> (MANTISSA_EXPLICIT_BITS + 3);
+    if ((hi & precisionMask) == precisionMask) {
+      var secondHi = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+      lo += secondHi;
+      if (Long.compareUnsigned(secondHi, lo) > 0) {
+        hi++;
+      }
+    }
+    if (lo == -1L && (q < -27 || 55 < q)) {
+      return Double.NaN;
+    }
+    var upperBit = (int) (hi >>> 63);
+    var shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+    var m = hi >>> shift;
+    var power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz - MINIMUM_EXPONENT;
+    if (power2 <= 0) {
+      // subnormal
+      if (64 <= -power2 + 1) {
+        return 0.0;
+      }
+      m >>>= -power2 + 1;
+      m += m & 1;
+      m >>>= 1;
+      power2 = m < (1L << MANTISSA_EXPLICIT_BITS) ? 0 : 1;
+      return assemble(m, power2);
+    }
+    if (Long.compareUnsigned(lo, 1) <= 0 && -4 <= q && q <= 23 && (m & 3) == 1 && (m << shift) == hi) {
+      // exactly halfway between two doubles: round to even
+      m &= ~1L;
+    }
+    m += m & 1;
+    m >>>= 1;
+    if ((2L << MANTISSA_EXPLICIT_BITS) <= m) {
+      m = 1L << MANTISSA_EXPLICIT_BITS;
+      power2++;
+    }
+    if (INFINITE_POWER <= power2) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return assemble(m, power2);
+  }
+
+  private static double assemble(long m, int power2) {
+    var mantissaMask = (1L << MANTISSA_EXPLICIT_BITS) - 1;
+    return Double.longBitsToDouble((m & mantissaMask) | ((long) power2 << MANTISSA_EXPLICIT_BITS));
+  }
+
+  private static long[] powersOfFive() {
+    var table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+    var five = BigInteger.valueOf(5);
+    var two128 = BigInteger.ONE.shiftLeft(128);
+    var two127 = BigInteger.ONE.shiftLeft(127);
+    var i = 0;
+    for (var q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+      BigInteger c;
+      if (q < 0) {
+        // the reciprocal, rounded up
+        var power5 = five.pow(-q);
+        var z = power5.subtract(BigInteger.ONE).bitLength();
+        var b = q >= -27 ? z + 127 : 2 * z + 128;
+        c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+      } else {
+        c = five.pow(q);
+        if (c.compareTo(two127) < 0) {
+          c = c.shiftLeft(128 - c.bitLength());
+        }
+      }
+      if (c.compareTo(two128) >= 0) {
+        c = c.shiftRight(c.bitLength() - 128);
+      }
+      table[i++] = c.shiftRight(64).longValue();
+      table[i++] = c.longValue();
+    }
+    return table;
+  }
+}
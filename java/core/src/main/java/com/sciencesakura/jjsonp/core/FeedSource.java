@@ -0,0 +1,74 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.nio.ByteBuffer;
+
+/**
+ * A source to which the bytes are appended as they arrive, for parsing without blocking.
+ *
+ * <p>Until the end of input is marked, running out of the bytes does not end the input but throws
+ * {@link Suspended}, so that the reader can go back to the start of the token and read it again when more bytes
+ * are appended.</p>
+ */
+final class FeedSource extends Source {
+
+  private boolean ended;
+
+  FeedSource(int bufferSize) {
+    super(new byte[bufferSize], 0, 0);
+  }
+
+  /**
+   * Appends the remaining bytes of the given buffer to the window, moving the unread bytes to the front of the buffer
+   * or into a larger one if there is not enough free space.
+   */
+  void append(ByteBuffer chunk) {
+    var n = chunk.remaining();
+    var remaining = limit - position;
+    if (buffer.length < remaining + n) {
+      var grown = new byte[Math.max(remaining + n, buffer.length * 2)];
+      System.arraycopy(buffer, position, grown, 0, remaining);
+      buffer = grown;
+      position = 0;
+      limit = remaining;
+    } else if (buffer.length - limit < n) {
+      compact();
+    }
+    chunk.get(buffer, limit, n);
+    limit += n;
+  }
+
+  void end() {
+    ended = true;
+  }
+
+  boolean ended() {
+    return ended;
+  }
+
+  @Override
+  boolean fill() {
+    if (ended) {
+      return false;
+    }
+    throw Suspended.INSTANCE;
+  }
+
+  /**
+   * Thrown when more bytes are needed before the end of input is marked.
+   */
+  static final class Suspended extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    static final Suspended INSTANCE = new Suspended();
+
+    private Suspended() {
+      // thrown for the control flow, so neither the stack trace nor the suppressed exceptions are needed
+      super(null, null, false, false);
+    }
+  }
+}
@@ -2,13 +2,27 @@
 
 package com.sciencesakura.jjsonp.core;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.jspecify.annotations.NonNull;
 
 /**
@@ -16,6 +30,8 @@ import org.jspecify.annotations.NonNull;
  */
 public final class JJson {
 
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
   private JJson() {
   }
 
@@ -29,7 +45,55 @@ public final class JJson {
    */
   @NonNull
   public static Optional<JsonValue> parse(@NonNull ReadableByteChannel channel, int bufferSize) throws IOException {
-    return new Parser(new Lexer(channel, bufferSize)).parse();
+    return parse(channel, bufferSize, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Parses JSON from the given channel with the specified options.
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull ReadableByteChannel channel, int bufferSize,
+                                          @NonNull ParserOptions options) throws IOException {
+    return JsonParser.parse(channel, bufferSize, options);
+  }
+
+  /**
+   * Parses JSON from the given file.
+   *
+   * <p>The file is memory-mapped, so it is read without any system calls other than mapping it. The mapping is not
+   * scanned in place: it is copied chunk by chunk into a small window on the heap, which the lexer scans like a byte
+   * array, and which belongs to a pooled parser. Files larger than 2 GiB are supported. The mapping is released before this method returns.</p>
+   *
+   * @param path the path to the file to read JSON from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull Path path) throws IOException {
+    return parse(path, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Parses JSON from the given file with the specified options.
+   *
+   * @param path    the path to the file to read JSON from.
+   * @param options the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   * @see #parse(Path)
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull Path path, @NonNull ParserOptions options) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ); var arena = Arena.ofConfined()) {
+      var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+      return JsonParser.parse(segment, options);
+    }
   }
 
   /**
@@ -54,7 +118,80 @@ public final class JJson {
    */
   @NonNull
   public static Optional<JsonValue> parse(byte @NonNull [] bytes) throws IOException {
-    return parse(new ByteArrayInputStream(bytes), bytes.length);
+    return parse(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Parses JSON from the given range of the byte array.
+   *
+   * <p>The bytes are read in place, without being copied. The parser and its buffers are borrowed from a pool shared
+   * by all threads and returned after parsing, so that parsing many small inputs does not set them up every time;
+   * use {@link JsonParser} to reuse them explicitly.</p>
+   *
+   * @param bytes  the byte array to read JSON from.
+   * @param offset the index of the first byte to read.
+   * @param length the number of bytes to read.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException               if an I/O error occurs.
+   * @throws IndexOutOfBoundsException if the range is out of bounds of the array.
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(byte @NonNull [] bytes, int offset, int length) throws IOException {
+    return parse(bytes, offset, length, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Parses JSON from the given range of the byte array with the specified options.
+   *
+   * @param bytes   the byte array to read JSON from.
+   * @param offset  the index of the first byte to read.
+   * @param length  the number of bytes to read.
+   * @param options the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException               if an I/O error occurs.
+   * @throws IndexOutOfBoundsException if the range is out of bounds of the array.
+   * @see #parse(byte[], int, int)
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(byte @NonNull [] bytes, int offset, int length,
+                                          @NonNull ParserOptions options) throws IOException {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    return JsonParser.parse(bytes, offset, length, options);
+  }
+
+  /**
+   * Parses JSON from the remaining bytes of the given buffer.
+   *
+   * <p>The bytes between the buffer's position and limit are read. A buffer backed by an accessible array is read
+   * in place, without being copied. Any other buffer, e.g. a direct or read-only one, is not lexed in place: it is
+   * copied chunk by chunk into a small window on the heap, which belongs to a pooled parser and so is not allocated
+   * for each call. The buffer's position is not modified.</p>
+   *
+   * @param buffer the buffer to read JSON from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull ByteBuffer buffer) throws IOException {
+    return parse(buffer, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Parses JSON from the remaining bytes of the given buffer with the specified options.
+   *
+   * @param buffer  the buffer to read JSON from.
+   * @param options the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   * @see #parse(ByteBuffer)
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull ByteBuffer buffer, @NonNull ParserOptions options)
+      throws IOException {
+    if (buffer.hasArray()) {
+      return JsonParser.parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), options);
+    }
+    return JsonParser.parse(MemorySegment.ofBuffer(buffer), options);
   }
 
   /**
@@ -68,4 +205,676 @@ public final class JJson {
   public static Optional<JsonValue> parse(@NonNull CharSequence jsonString) throws IOException {
     return parse(jsonString.toString().getBytes(StandardCharsets.UTF_8));
   }
+
+  /**
+   * Parses JSON from the given channel, calling back the given handler instead of building a tree.
+   *
+   * <p>The handler is called in the order of the JSON text. It is not called at all if the input is empty.</p>
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param handler    the handler to call back.
+   * @throws IOException if an I/O error occurs.
+   */
+  public static void parse(@NonNull ReadableByteChannel channel, int bufferSize, @NonNull JsonHandler handler)
+      throws IOException {
+    parse(new ChannelSource(channel, bufferSize), handler);
+  }
+
+  /**
+   * Parses JSON from the given file, calling back the given handler instead of building a tree.
+   *
+   * @param path    the path to the file to read JSON from.
+   * @param handler the handler to call back.
+   * @throws IOException if an I/O error occurs.
+   * @see #parse(Path)
+   * @see #parse(ReadableByteChannel, int, JsonHandler)
+   */
+  public static void parse(@NonNull Path path, @NonNull JsonHandler handler) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ); var arena = Arena.ofConfined()) {
+      var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+      parse(new SegmentSource(segment, DEFAULT_BUFFER_SIZE), handler);
+    }
+  }
+
+  /**
+   * Parses JSON from the given byte array, calling back the given handler instead of building a tree.
+   *
+   * @param bytes   the byte array to read JSON from.
+   * @param handler the handler to call back.
+   * @see #parse(ReadableByteChannel, int, JsonHandler)
+   */
+  public static void parse(byte @NonNull [] bytes, @NonNull JsonHandler handler) {
+    parse(new ArraySource(bytes, 0, bytes.length), handler);
+  }
+
+  /**
+   * Parses only the values selected by the given projection from the given channel.
+   *
+   * <p>The result contains the selected values, enclosed in the arrays and objects on their paths with only the
+   * elements and members on the paths; a scalar on a path to a value within it is left out. The other values are
+   * skipped without being decoded, which is much faster than parsing them, but they are not checked to be valid.</p>
+   *
+   * <pre>{@code
+   * // {"user": {"id": 1}, "items": [{"price": 2}]} from a larger document
+   * var value = JJson.parse(channel, 8192, Projection.of("/user/id", "/items/0/price"));
+   * }</pre>
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param projection the paths to the values to parse.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty or is a scalar not selected.
+   * @throws IOException if an I/O error occurs.
+   * @see Projection
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull ReadableByteChannel channel, int bufferSize,
+                                          @NonNull Projection projection) throws IOException {
+    return parse(channel, bufferSize, ParserOptions.DEFAULT, projection);
+  }
+
+  /**
+   * Parses only the values selected by the given projection from the given channel with the specified options.
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @param projection the paths to the values to parse.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty or is a scalar not selected.
+   * @throws IOException if an I/O error occurs.
+   * @see #parse(ReadableByteChannel, int, Projection)
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(@NonNull ReadableByteChannel channel, int bufferSize,
+                                          @NonNull ParserOptions options, @NonNull Projection projection)
+      throws IOException {
+    return parse(new ChannelSource(channel, bufferSize), options, projection);
+  }
+
+  /**
+   * Parses only the values selected by the given projection from the given byte array.
+   *
+   * @param bytes      the byte array to read JSON from.
+   * @param projection the paths to the values to parse.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty or is a scalar not selected.
+   * @see #parse(ReadableByteChannel, int, Projection)
+   */
+  @NonNull
+  public static Optional<JsonValue> parse(byte @NonNull [] bytes, @NonNull Projection projection) {
+    return parse(new ArraySource(bytes, 0, bytes.length), ParserOptions.DEFAULT, projection);
+  }
+
+  private static void parse(Source source, JsonHandler handler) {
+    new JsonReader(new Lexer(source), ParserOptions.DEFAULT).accept(handler);
+  }
+
+  private static Optional<JsonValue> parse(Source source, ParserOptions options, Projection projection) {
+    Objects.requireNonNull(projection, "projection");
+    return new ProjectionParser(new JsonReader(new Lexer(source, options), options), options).parse(projection);
+  }
+
+  /**
+   * Parses JSON from the given file, using multiple threads for a large array or object.
+   *
+   * <p>The file is memory-mapped and divided into ranges, and the elements or members of the outermost array or
+   * object are parsed in parallel in the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.
+   * The result is equal to that of {@link #parse(Path)}; a small file or a scalar value is parsed sequentially, and
+   * an invalid file is parsed again sequentially to report the error at the right position. The mapping is released
+   * when it becomes unreachable.</p>
+   *
+   * @param path the path to the file to read JSON from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Optional<JsonValue> parseParallel(@NonNull Path path) throws IOException {
+    return parseParallel(path, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Parses JSON from the given file with the specified options, using multiple threads for a large array or object.
+   *
+   * @param path    the path to the file to read JSON from.
+   * @param options the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   * @see #parseParallel(Path)
+   */
+  @NonNull
+  public static Optional<JsonValue> parseParallel(@NonNull Path path, @NonNull ParserOptions options)
+      throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // the workers may still be reading the other parts when one of them fails, so the mapping cannot be released
+      // explicitly
+      var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+      return new ParallelParser(segment, options).parse();
+    }
+  }
+
+  /**
+   * Parses JSON from the given byte array on demand.
+   *
+   * <p>The returned arrays and objects are views of the byte array: their elements and members are located the first
+   * time they are accessed, and each value is parsed the first time it is accessed, e.g. by
+   * {@link JsonObject#get(String)}, {@link JsonArray#get(int)} or {@code forEach}, and then cached. This is much
+   * faster than {@link #parse(byte[])} when only a few values of a large input are used.</p>
+   *
+   * <p>Since the values are checked only when they are parsed, a syntax error is thrown as a {@link ParserException}
+   * from the method accessing the invalid part, if ever. The byte array must not be modified while the values are in
+   * use. The values may be shared by multiple threads.</p>
+   *
+   * @param bytes the byte array to read JSON from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   */
+  @NonNull
+  public static Optional<JsonValue> parseLazy(byte @NonNull [] bytes) {
+    return parseLazy(bytes, 0, bytes.length, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Parses JSON from the given byte array on demand with the specified options.
+   *
+   * @param bytes   the byte array to read JSON from.
+   * @param offset  the start offset of the JSON in the byte array.
+   * @param length  the length of the JSON in bytes.
+   * @param options the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @see #parseLazy(byte[])
+   */
+  @NonNull
+  public static Optional<JsonValue> parseLazy(byte @NonNull [] bytes, int offset, int length,
+                                              @NonNull ParserOptions options) {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    return new LazyParser(bytes, offset, length, options).parse();
+  }
+
+  /**
+   * Parses JSON from the given byte array into a compact representation.
+   *
+   * <p>The value is stored in a flat array of {@code long} entries and a pool of the characters of the strings,
+   * instead of a tree of {@link JsonValue}s; the arrays and objects returned are views of them, which build their
+   * elements and values every time they are accessed. This takes several times less memory than
+   * {@link #parse(byte[])} to hold a large value, and iterating over it reads the memory sequentially. The
+   * representation is immutable, so the values may be shared by multiple threads.</p>
+   *
+   * @param bytes the byte array to read JSON from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   */
+  @NonNull
+  public static Optional<JsonValue> parseCompact(byte @NonNull [] bytes) {
+    return Tape.parse(new JsonReader(new Lexer(new ArraySource(bytes, 0, bytes.length)), ParserOptions.DEFAULT), null);
+  }
+
+  /**
+   * Parses JSON from the given byte array into a compact representation stored off-heap in the given arena.
+   *
+   * <p>Unlike {@link #parseCompact(byte[])}, the tape and the strings are built off the heap, in scratch memory
+   * which is freed before this method returns, and then copied into memory allocated by the arena, so that a large
+   * value neither takes the heap nor is traced by the garbage collector. The memory is
+   * freed when the arena is closed, after which accessing the arrays, objects and their elements and members throws
+   * {@link IllegalStateException}; the scalars already taken out of them remain valid. The values may be accessed
+   * only by the threads the arena allows, e.g. only by its owner thread for {@link Arena#ofConfined()}.</p>
+   *
+   * @param bytes   the byte array to read JSON from.
+   * @param options the parser options.
+   * @param arena   the arena to allocate the memory from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @see #parseCompact(byte[])
+   */
+  @NonNull
+  public static Optional<JsonValue> parseCompact(byte @NonNull [] bytes, @NonNull ParserOptions options,
+                                                 @NonNull Arena arena) {
+    Objects.requireNonNull(arena, "arena");
+    return Tape.parse(new JsonReader(new Lexer(new ArraySource(bytes, 0, bytes.length), options), options), arena);
+  }
+
+  /**
+   * Parses JSON from the given channel into a compact representation with the specified options.
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   * @see #parseCompact(byte[])
+   */
+  @NonNull
+  public static Optional<JsonValue> parseCompact(@NonNull ReadableByteChannel channel, int bufferSize,
+                                                 @NonNull ParserOptions options) throws IOException {
+    return Tape.parse(new JsonReader(new Lexer(new ChannelSource(channel, bufferSize), options), options), null);
+  }
+
+  /**
+   * Parses JSON from the given channel into a compact representation stored off-heap in the given arena.
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @param arena      the arena to allocate the memory from.
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws IOException if an I/O error occurs.
+   * @see #parseCompact(byte[], ParserOptions, Arena)
+   */
+  @NonNull
+  public static Optional<JsonValue> parseCompact(@NonNull ReadableByteChannel channel, int bufferSize,
+                                                 @NonNull ParserOptions options, @NonNull Arena arena)
+      throws IOException {
+    Objects.requireNonNull(arena, "arena");
+    return Tape.parse(new JsonReader(new Lexer(new ChannelSource(channel, bufferSize), options), options), arena);
+  }
+
+  /**
+   * Returns a pull parser which reads JSON from the given channel.
+   *
+   * <p>The I/O errors occurring while reading are thrown as {@link java.io.UncheckedIOException}s.</p>
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @return the pull parser.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static JsonReader reader(@NonNull ReadableByteChannel channel, int bufferSize) throws IOException {
+    return reader(channel, bufferSize, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a pull parser which reads JSON from the given channel with the specified options.
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @return the pull parser.
+   * @throws IOException if an I/O error occurs.
+   * @see #reader(ReadableByteChannel, int)
+   */
+  @NonNull
+  public static JsonReader reader(@NonNull ReadableByteChannel channel, int bufferSize,
+                                  @NonNull ParserOptions options) throws IOException {
+    return new JsonReader(new Lexer(new ChannelSource(channel, bufferSize), options), options);
+  }
+
+  /**
+   * Returns a pull parser which reads JSON from the given input stream.
+   *
+   * @param stream     the input stream to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @return the pull parser.
+   * @throws IOException if an I/O error occurs.
+   * @see #reader(ReadableByteChannel, int)
+   */
+  @NonNull
+  public static JsonReader reader(@NonNull InputStream stream, int bufferSize) throws IOException {
+    return reader(Channels.newChannel(stream), bufferSize);
+  }
+
+  /**
+   * Returns a pull parser which reads JSON from the given byte array.
+   *
+   * @param bytes the byte array to read JSON from.
+   * @return the pull parser.
+   */
+  @NonNull
+  public static JsonReader reader(byte @NonNull [] bytes) {
+    return reader(bytes, 0, bytes.length, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a pull parser which reads JSON from the given range of the byte array with the specified options.
+   *
+   * <p>The bytes are read in place, without being copied.</p>
+   *
+   * @param bytes   the byte array to read JSON from.
+   * @param offset  the index of the first byte to read.
+   * @param length  the number of bytes to read.
+   * @param options the parser options.
+   * @return the pull parser.
+   * @throws IndexOutOfBoundsException if the range is out of bounds of the array.
+   */
+  @NonNull
+  public static JsonReader reader(byte @NonNull [] bytes, int offset, int length, @NonNull ParserOptions options) {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    return new JsonReader(new Lexer(new ArraySource(bytes, offset, length), options), options);
+  }
+
+  /**
+   * Returns a lazy stream of the elements of the JSON array read from the given channel.
+   *
+   * <p>Each element is parsed only when the stream pulls it, so that an array larger than the memory can be read as
+   * long as each element fits in it. The stream is empty if the input is empty. Closing the stream closes the
+   * channel. Syntax errors are thrown as {@link ParserException}s, and the I/O errors occurring while reading are
+   * thrown as {@link java.io.UncheckedIOException}s, when the stream reaches them.</p>
+   *
+   * <pre>{@code
+   * try (var elements = JJson.streamArray(FileChannel.open(path))) {
+   *   elements.limit(10).forEach(System.out::println);
+   * }
+   * }</pre>
+   *
+   * @param channel the channel to read the JSON array from.
+   * @return the stream of the elements.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Stream<JsonValue> streamArray(@NonNull ReadableByteChannel channel) throws IOException {
+    return streamArray(channel, DEFAULT_BUFFER_SIZE, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a lazy stream of the elements of the JSON array read from the given channel with the specified options.
+   *
+   * @param channel    the channel to read the JSON array from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @return the stream of the elements.
+   * @throws IOException if an I/O error occurs.
+   * @see #streamArray(ReadableByteChannel)
+   */
+  @NonNull
+  public static Stream<JsonValue> streamArray(@NonNull ReadableByteChannel channel, int bufferSize,
+                                              @NonNull ParserOptions options) throws IOException {
+    return stream(channel, bufferSize, options, ElementSpliterator::new);
+  }
+
+  /**
+   * Returns a lazy stream of the successive JSON values read from the given channel.
+   *
+   * <p>The input may consist of any number of JSON values, e.g. {@code {"a":1}{"b":2} [3]}, which may be separated
+   * by whitespaces. They are read one after another with the same buffer, and each value is parsed only when the
+   * stream pulls it. The stream is empty if the input is empty. Closing the stream closes the channel. Syntax errors
+   * are thrown as {@link ParserException}s, and the I/O errors occurring while reading are thrown as
+   * {@link java.io.UncheckedIOException}s, when the stream reaches them.</p>
+   *
+   * @param channel the channel to read JSON values from.
+   * @return the stream of the JSON values.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Stream<JsonValue> parseAll(@NonNull ReadableByteChannel channel) throws IOException {
+    return parseAll(channel, DEFAULT_BUFFER_SIZE, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a lazy stream of the successive JSON values read from the given channel with the specified options.
+   *
+   * @param channel    the channel to read JSON values from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @return the stream of the JSON values.
+   * @throws IOException if an I/O error occurs.
+   * @see #parseAll(ReadableByteChannel)
+   */
+  @NonNull
+  public static Stream<JsonValue> parseAll(@NonNull ReadableByteChannel channel, int bufferSize,
+                                           @NonNull ParserOptions options) throws IOException {
+    return stream(channel, bufferSize, options, ValueSpliterator::new);
+  }
+
+  /**
+   * Returns a stream of the JSON values read from the given file in the JSON Lines format.
+   *
+   * <p>Each line of the file is parsed as a JSON text; blank lines are skipped. The file is memory-mapped, and the
+   * lines are parsed only when the stream pulls them. The mapping is released when the stream becomes
+   * unreachable.</p>
+   *
+   * <p>The stream is sequential and ordered. If it is made {@link Stream#parallel() parallel}, the file is split at
+   * newlines into chunks which are parsed by the workers of the common fork-join pool; make it also
+   * {@link Stream#unordered() unordered} if the order of the values does not matter. The line numbers of errors are
+   * those in the whole file either way.</p>
+   *
+   * <pre>{@code
+   * var count = JJson.parseLines(path).parallel().unordered().filter(v -> v instanceof JsonObject).count();
+   * }</pre>
+   *
+   * @param path the path to the file to read JSON Lines from.
+   * @return the stream of the JSON values.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static Stream<JsonValue> parseLines(@NonNull Path path) throws IOException {
+    return parseLines(path, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a stream of the JSON values read from the given file in the JSON Lines format with the specified options.
+   *
+   * @param path    the path to the file to read JSON Lines from.
+   * @param options the parser options.
+   * @return the stream of the JSON values.
+   * @throws IOException if an I/O error occurs.
+   * @see #parseLines(Path)
+   */
+  @NonNull
+  public static Stream<JsonValue> parseLines(@NonNull Path path, @NonNull ParserOptions options) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // the workers of a parallel stream may still be reading when a failed stream is closed, so the mapping cannot
+      // be released explicitly
+      var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+      return StreamSupport.stream(new LineSpliterator(segment, options), false);
+    }
+  }
+
+  /**
+   * Returns a publisher of the elements of the JSON array published by the given publisher of byte buffers.
+   *
+   * <p>The buffers are parsed as they arrive, without blocking, and each element is published as soon as it is
+   * complete. A buffer is requested from the upstream publisher only when the subscriber demands more elements than
+   * have been parsed, so that the whole array is never buffered. The publisher completes once the array ends, ignoring
+   * the rest of the input, or if the input is empty. Syntax errors are signaled as {@link ParserException}s, after
+   * the upstream subscription has been cancelled.</p>
+   *
+   * <p>Each subscriber subscribes to the upstream publisher on its own. The buffers must not be modified once they
+   * have been published.</p>
+   *
+   * @param upstream the publisher of the bytes of the JSON array.
+   * @return the publisher of the elements.
+   */
+  public static Flow.@NonNull Publisher<JsonValue> publishArray(Flow.@NonNull Publisher<ByteBuffer> upstream) {
+    return publishArray(upstream, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a publisher of the elements of the JSON array published by the given publisher of byte buffers, with the
+   * specified options.
+   *
+   * @param upstream the publisher of the bytes of the JSON array.
+   * @param options  the parser options.
+   * @return the publisher of the elements.
+   * @see #publishArray(Flow.Publisher)
+   */
+  public static Flow.@NonNull Publisher<JsonValue> publishArray(Flow.@NonNull Publisher<ByteBuffer> upstream,
+                                                                @NonNull ParserOptions options) {
+    return new ValuePublisher(Objects.requireNonNull(upstream, "upstream"), options, true);
+  }
+
+  /**
+   * Returns a publisher of the successive JSON values published by the given publisher of byte buffers.
+   *
+   * <p>The input may consist of any number of JSON values which may be separated by whitespaces, e.g. JSON Lines.
+   * Otherwise, this is the same as {@link #publishArray(Flow.Publisher)}, except that the publisher completes when
+   * the upstream publisher does.</p>
+   *
+   * @param upstream the publisher of the bytes of the JSON values.
+   * @return the publisher of the JSON values.
+   */
+  public static Flow.@NonNull Publisher<JsonValue> publishAll(Flow.@NonNull Publisher<ByteBuffer> upstream) {
+    return publishAll(upstream, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a publisher of the successive JSON values published by the given publisher of byte buffers, with the
+   * specified options.
+   *
+   * @param upstream the publisher of the bytes of the JSON values.
+   * @param options  the parser options.
+   * @return the publisher of the JSON values.
+   * @see #publishAll(Flow.Publisher)
+   */
+  public static Flow.@NonNull Publisher<JsonValue> publishAll(Flow.@NonNull Publisher<ByteBuffer> upstream,
+                                                              @NonNull ParserOptions options) {
+    return new ValuePublisher(Objects.requireNonNull(upstream, "upstream"), options, false);
+  }
+
+  /**
+   * Validates JSON from the given channel without building any values.
+   *
+   * <p>The input is checked as strictly as parsing it, and also to be well-formed UTF-8 and to contain nothing but
+   * whitespace after the value; an empty input is invalid. No tokens, strings or values are created unless the input
+   * is invalid.</p>
+   *
+   * @param channel the channel to read JSON from.
+   * @return the result of the validation.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public static ValidationResult validate(@NonNull ReadableByteChannel channel) throws IOException {
+    return validate(channel, DEFAULT_BUFFER_SIZE, ParserOptions.DEFAULT.withStrictUtf8(true));
+  }
+
+  /**
+   * Validates JSON from the given channel with the specified options without building any values.
+   *
+   * <p>Unlike {@link #validate(ReadableByteChannel)}, invalid UTF-8 byte sequences are accepted unless the options
+   * reject them.</p>
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @param options    the parser options.
+   * @return the result of the validation.
+   * @throws IOException if an I/O error occurs.
+   * @see #validate(ReadableByteChannel)
+   */
+  @NonNull
+  public static ValidationResult validate(@NonNull ReadableByteChannel channel, int bufferSize,
+                                          @NonNull ParserOptions options) throws IOException {
+    return validate(new ChannelSource(channel, bufferSize), options);
+  }
+
+  /**
+   * Validates JSON from the given byte array without building any values.
+   *
+   * @param bytes the byte array to read JSON from.
+   * @return the result of the validation.
+   * @see #validate(ReadableByteChannel)
+   */
+  @NonNull
+  public static ValidationResult validate(byte @NonNull [] bytes) {
+    return validate(bytes, ParserOptions.DEFAULT.withStrictUtf8(true));
+  }
+
+  /**
+   * Validates JSON from the given byte array with the specified options without building any values.
+   *
+   * @param bytes   the byte array to read JSON from.
+   * @param options the parser options.
+   * @return the result of the validation.
+   * @see #validate(ReadableByteChannel, int, ParserOptions)
+   */
+  @NonNull
+  public static ValidationResult validate(byte @NonNull [] bytes, @NonNull ParserOptions options) {
+    return validate(new ArraySource(bytes, 0, bytes.length), options);
+  }
+
+  private static ValidationResult validate(Source source, ParserOptions options) {
+    var lexer = new Lexer(source, options);
+    var reader = new JsonReader(lexer, options);
+    try {
+      if (!reader.hasNext()) {
+        return ValidationResult.of(lexer.unexpectedEOF());
+      }
+      do {
+        reader.next();
+      } while (reader.hasNext());
+      var kind = lexer.advance();
+      if (kind != null) {
+        return ValidationResult.of(ParserException.unexpectedToken(lexer.toToken(kind)));
+      }
+      return ValidationResult.VALID;
+    } catch (ParserException e) {
+      // only the end of input is reported without the position by the reader
+      return ValidationResult.of(e.getLine() == 0 ? lexer.unexpectedEOF() : e);
+    }
+  }
+
+  private static Stream<JsonValue> stream(ReadableByteChannel channel, int bufferSize, ParserOptions options,
+                                          BiFunction<JsonReader, ParserOptions, Spliterator<JsonValue>> spliterator)
+      throws IOException {
+    try {
+      var reader = new JsonReader(new Lexer(new ChannelSource(channel, bufferSize), options), options);
+      return StreamSupport.stream(spliterator.apply(reader, options), false).onClose(() -> {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (IOException | RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw e;
+    }
+  }
+
+  private static final class ElementSpliterator extends Spliterators.AbstractSpliterator<JsonValue> {
+
+    private final JsonReader reader;
+
+    private final Parser parser;
+
+    private boolean started;
+
+    ElementSpliterator(JsonReader reader, ParserOptions options) {
+      super(Long.MAX_VALUE, ORDERED | NONNULL);
+      this.reader = reader;
+      this.parser = new Parser(reader, options);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonValue> action) {
+      if (!started) {
+        started = true;
+        if (!reader.hasNext()) {
+          return false;
+        }
+        if (reader.next() != JsonReader.Event.START_ARRAY) {
+          throw reader.unexpectedValue();
+        }
+      }
+      if (!reader.hasNext()) {
+        return false;
+      }
+      var event = reader.next();
+      if (event == JsonReader.Event.END_ARRAY) {
+        return false;
+      }
+      action.accept(parser.parseValue(event));
+      return true;
+    }
+  }
+
+  private static final class ValueSpliterator extends Spliterators.AbstractSpliterator<JsonValue> {
+
+    private final JsonReader reader;
+
+    private final Parser parser;
+
+    ValueSpliterator(JsonReader reader, ParserOptions options) {
+      super(Long.MAX_VALUE, ORDERED | NONNULL);
+      this.reader = reader;
+      this.parser = new Parser(reader, options);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonValue> action) {
+      reader.restart();
+      if (!reader.hasNext()) {
+        return false;
+      }
+      action.accept(parser.parseValue(reader.next()));
+      return true;
+    }
+  }
 }
@@ -23,6 +23,9 @@ public final class JsonArray implements JsonValue, Iterable<JsonValue> {
 
   private final List<JsonValue> elements;
 
+  // computed when first needed, or 0 if not yet
+  private transient int hash;
+
   /**
    * Constructs a JSON array with the specified elements.
    *
@@ -41,6 +44,10 @@ public final class JsonArray implements JsonValue, Iterable<JsonValue> {
     this.elements = List.of(elements);
   }
 
+  JsonArray(ValueList elements) {
+    this.elements = elements;
+  }
+
   /**
    * Returns the element at the specified index.
    *
@@ -94,7 +101,12 @@ public final class JsonArray implements JsonValue, Iterable<JsonValue> {
 
   @Override
   public int hashCode() {
-    return elements.hashCode();
+    var hash = this.hash;
+    if (hash == 0) {
+      hash = elements.hashCode();
+      this.hash = hash;
+    }
+    return hash;
   }
 
   @Override
@@ -0,0 +1,113 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Represents a JSON number of integer type which is out of the range of {@code long}.
+ *
+ * <p>The number is kept as it is written in the JSON text and converted only when one of its values is requested.
+ * The converted values are cached.</p>
+ */
+public final class JsonBigInteger implements JsonValue, Comparable<JsonBigInteger> {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final String text;
+
+  private transient volatile BigInteger value;
+
+  private transient volatile Double doubleValue;
+
+  /**
+   * Constructs a JSON number with the specified value.
+   *
+   * @param value the integer number represented by this JSON number.
+   */
+  public JsonBigInteger(@NonNull BigInteger value) {
+    this(value.toString());
+  }
+
+  private JsonBigInteger(String text) {
+    this.text = text;
+  }
+
+  static JsonBigInteger ofText(String text) {
+    return new JsonBigInteger(text);
+  }
+
+  /**
+   * Returns the integer number represented by this JSON number.
+   *
+   * @return the integer number represented by this JSON number.
+   */
+  @NonNull
+  public BigInteger value() {
+    var value = this.value;
+    if (value == null) {
+      value = new BigInteger(text);
+      this.value = value;
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of this JSON number as a {@code long}.
+   *
+   * @return the value of this JSON number as a {@code long}.
+   * @throws ArithmeticException if the value is out of the range of {@code long}.
+   */
+  public long longValue() {
+    return value().longValueExact();
+  }
+
+  /**
+   * Returns the value of this JSON number as the nearest {@code double}.
+   *
+   * @return the value of this JSON number as the nearest {@code double}.
+   */
+  public double doubleValue() {
+    var doubleValue = this.doubleValue;
+    if (doubleValue == null) {
+      doubleValue = Double.parseDouble(text);
+      this.doubleValue = doubleValue;
+    }
+    return doubleValue;
+  }
+
+  /**
+   * Returns the value of this JSON number as a {@code BigDecimal}.
+   *
+   * @return the value of this JSON number as a {@code BigDecimal}.
+   */
+  @NonNull
+  public BigDecimal bigDecimalValue() {
+    return new BigDecimal(value());
+  }
+
+  @Override
+  public int compareTo(@NonNull JsonBigInteger o) {
+    return value().compareTo(o.value());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj == this || (obj instanceof JsonBigInteger i && value().equals(i.value()));
+  }
+
+  @Override
+  public int hashCode() {
+    return value().hashCode();
+  }
+
+  @Override
+  @NonNull
+  public String toString() {
+    return text;
+  }
+}
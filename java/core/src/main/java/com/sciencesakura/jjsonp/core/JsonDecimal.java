@@ -0,0 +1,118 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Represents a JSON number of floating-point type without loss of precision.
+ *
+ * <p>The number is kept as it is written in the JSON text and converted only when one of its values is requested.
+ * The converted values are cached. The parser yields this instead of {@link JsonFloat} if
+ * {@link ParserOptions#exactDecimals()} is {@code true}.</p>
+ *
+ * <p>Two JSON numbers are equal if they are numerically equal, regardless of how they are written; for example,
+ * {@code 1.0} and {@code 1.00e0} are equal.</p>
+ */
+public final class JsonDecimal implements JsonValue, Comparable<JsonDecimal> {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final String text;
+
+  private transient volatile BigDecimal value;
+
+  private transient volatile Double doubleValue;
+
+  /**
+   * Constructs a JSON number with the specified value.
+   *
+   * @param value the number represented by this JSON number.
+   */
+  public JsonDecimal(@NonNull BigDecimal value) {
+    this(value.toString());
+  }
+
+  private JsonDecimal(String text) {
+    this.text = text;
+  }
+
+  static JsonDecimal ofText(String text) {
+    return new JsonDecimal(text);
+  }
+
+  /**
+   * Returns the number represented by this JSON number.
+   *
+   * @return the number represented by this JSON number.
+   */
+  @NonNull
+  public BigDecimal value() {
+    var value = this.value;
+    if (value == null) {
+      value = new BigDecimal(text);
+      this.value = value;
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of this JSON number as a {@code long}.
+   *
+   * @return the value of this JSON number as a {@code long}.
+   * @throws ArithmeticException if the value has a nonzero fractional part or is out of the range of {@code long}.
+   */
+  public long longValue() {
+    return value().longValueExact();
+  }
+
+  /**
+   * Returns the value of this JSON number as the nearest {@code double}.
+   *
+   * @return the value of this JSON number as the nearest {@code double}.
+   */
+  public double doubleValue() {
+    var doubleValue = this.doubleValue;
+    if (doubleValue == null) {
+      doubleValue = Double.parseDouble(text);
+      this.doubleValue = doubleValue;
+    }
+    return doubleValue;
+  }
+
+  /**
+   * Returns the value of this JSON number as a {@code BigInteger}.
+   *
+   * @return the value of this JSON number as a {@code BigInteger}.
+   * @throws ArithmeticException if the value has a nonzero fractional part.
+   */
+  @NonNull
+  public BigInteger bigIntegerValue() {
+    return value().toBigIntegerExact();
+  }
+
+  @Override
+  public int compareTo(@NonNull JsonDecimal o) {
+    return value().compareTo(o.value());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj == this || (obj instanceof JsonDecimal d && value().compareTo(d.value()) == 0);
+  }
+
+  @Override
+  public int hashCode() {
+    return value().stripTrailingZeros().hashCode();
+  }
+
+  @Override
+  @NonNull
+  public String toString() {
+    return text;
+  }
+}
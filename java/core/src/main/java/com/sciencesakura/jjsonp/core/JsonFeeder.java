@@ -0,0 +1,213 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A push parser to which the input is fed in chunks as it arrives, e.g. from a non-blocking channel.
+ *
+ * <p>Each chunk is parsed as far as possible when it is fed, and the values or events completed by it are passed to
+ * the consumer or handler before {@link #feed(ByteBuffer)} returns. A token split across chunks, even in the middle
+ * of a UTF-8 sequence, is kept and read again from its start when the next chunk arrives, so only the incomplete
+ * token stays in memory between the chunks. The input may consist of multiple values, optionally separated by
+ * whitespace.</p>
+ *
+ * <pre>{@code
+ * var feeder = JsonFeeder.of(value -> System.out.println(value));
+ * feeder.feed(ByteBuffer.wrap("[1, 2".getBytes()));
+ * feeder.feed(ByteBuffer.wrap("3] {\"a\"".getBytes()));  // prints [1,23]
+ * feeder.feed(ByteBuffer.wrap(": true}".getBytes()));    // prints {"a":true}
+ * feeder.endOfInput();
+ * }</pre>
+ *
+ * <p>Once an exception has been thrown, or the end of input has been marked, the feeder cannot be used any more.
+ * Instances are not thread-safe.</p>
+ */
+public final class JsonFeeder {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final FeedSource source = new FeedSource(BUFFER_SIZE);
+
+  private final Lexer lexer;
+
+  private final JsonReader reader;
+
+  // null if the events are passed to the handler
+  private final Parser parser;
+
+  private final Consumer<? super JsonValue> consumer;
+
+  private final JsonHandler handler;
+
+  // whether the values passed are the elements of the outermost array
+  private final boolean elements;
+
+  private boolean started;
+
+  private boolean finished;
+
+  private boolean closed;
+
+  private JsonFeeder(Consumer<? super JsonValue> consumer, JsonHandler handler, ParserOptions options,
+                     boolean elements) {
+    this.lexer = new Lexer(source, options);
+    this.reader = new JsonReader(lexer, options);
+    this.parser = consumer != null ? new Parser(reader, options) : null;
+    this.consumer = consumer;
+    this.handler = handler;
+    this.elements = elements;
+  }
+
+  /**
+   * Returns a feeder which passes each value to the given consumer as soon as it is complete.
+   *
+   * @param consumer the consumer of the values.
+   * @return the feeder.
+   */
+  @NonNull
+  public static JsonFeeder of(@NonNull Consumer<? super JsonValue> consumer) {
+    return of(consumer, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a feeder which passes each value to the given consumer as soon as it is complete, with the specified
+   * options.
+   *
+   * @param consumer the consumer of the values.
+   * @param options  the parser options.
+   * @return the feeder.
+   */
+  @NonNull
+  public static JsonFeeder of(@NonNull Consumer<? super JsonValue> consumer, @NonNull ParserOptions options) {
+    return new JsonFeeder(Objects.requireNonNull(consumer, "consumer"), null, options, false);
+  }
+
+  /**
+   * Returns a feeder which calls back the given handler for each event as soon as it is complete, instead of building
+   * values.
+   *
+   * @param handler the handler to call back.
+   * @return the feeder.
+   */
+  @NonNull
+  public static JsonFeeder of(@NonNull JsonHandler handler) {
+    return of(handler, ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a feeder which calls back the given handler for each event as soon as it is complete, with the specified
+   * options.
+   *
+   * @param handler the handler to call back.
+   * @param options the parser options.
+   * @return the feeder.
+   */
+  @NonNull
+  public static JsonFeeder of(@NonNull JsonHandler handler, @NonNull ParserOptions options) {
+    return new JsonFeeder(null, Objects.requireNonNull(handler, "handler"), options, false);
+  }
+
+  /**
+   * Returns a feeder which passes each element of the outermost array to the given consumer as soon as it is
+   * complete. The input after the array is ignored.
+   */
+  static JsonFeeder ofElements(Consumer<? super JsonValue> consumer, ParserOptions options) {
+    return new JsonFeeder(consumer, null, options, true);
+  }
+
+  /**
+   * Parses the remaining bytes of the given buffer following the bytes fed so far.
+   *
+   * <p>The bytes are copied, so the buffer may be reused once this returns.</p>
+   *
+   * @param chunk the next bytes of the input.
+   * @throws ParserException if the input is invalid.
+   * @throws IllegalStateException if the feeder has been closed by an exception or the end of input.
+   */
+  public void feed(@NonNull ByteBuffer chunk) {
+    ensureOpen();
+    if (finished) {
+      chunk.position(chunk.limit());
+      return;
+    }
+    source.append(chunk);
+    run();
+  }
+
+  /**
+   * Marks the end of input, parsing the rest of it.
+   *
+   * @throws ParserException if the input ends in the middle of a value.
+   * @throws IllegalStateException if the feeder has been closed by an exception or the end of input.
+   */
+  public void endOfInput() {
+    ensureOpen();
+    source.end();
+    run();
+    closed = true;
+  }
+
+  /**
+   * Returns {@code true} if the outermost array has ended, when passing its elements.
+   */
+  boolean finished() {
+    return finished;
+  }
+
+  private void run() {
+    try {
+      while (!finished) {
+        lexer.mark();
+        JsonReader.Event event;
+        try {
+          if (!reader.hasNext()) {
+            return;
+          }
+          event = reader.next();
+        } catch (FeedSource.Suspended e) {
+          // read the incomplete token again when more bytes arrive
+          lexer.reset();
+          reader.unread();
+          return;
+        }
+        if (elements && !started) {
+          if (event != JsonReader.Event.START_ARRAY) {
+            throw reader.unexpectedValue();
+          }
+          started = true;
+          continue;
+        }
+        if (elements && reader.currentDepth() == 0) {
+          // the end of the outermost array
+          finished = true;
+          return;
+        }
+        if (parser != null) {
+          var value = parser.add(event);
+          if (value != null) {
+            consumer.accept(value);
+          }
+        } else {
+          reader.dispatch(event, handler);
+        }
+        if (reader.currentDepth() == 0) {
+          reader.restart();
+        }
+      }
+    } catch (RuntimeException e) {
+      closed = true;
+      throw e;
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new IllegalStateException("Closed");
+    }
+  }
+}
@@ -0,0 +1,100 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.math.BigInteger;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A handler which receives the structure and the values of a JSON text as callbacks.
+ *
+ * <p>This is used with {@link JJson#parse(java.nio.channels.ReadableByteChannel, int, JsonHandler)} and its
+ * overloads, which call back the handler while reading the JSON text instead of building a tree of
+ * {@link JsonValue}s. All methods do nothing by default, so that only the needed ones can be overridden.</p>
+ *
+ * <p>The {@link CharSequence}s passed to the handler are views of the parser's internal buffer; they are valid only
+ * until the method returns. Call {@link CharSequence#toString()} to keep them.</p>
+ */
+public interface JsonHandler {
+
+  /**
+   * Called at the start of an object.
+   */
+  default void startObject() {
+  }
+
+  /**
+   * Called at the end of an object.
+   */
+  default void endObject() {
+  }
+
+  /**
+   * Called at the start of an array.
+   */
+  default void startArray() {
+  }
+
+  /**
+   * Called at the end of an array.
+   */
+  default void endArray() {
+  }
+
+  /**
+   * Called with the name of an object member, before its value.
+   *
+   * @param name the name, which is valid only until this method returns.
+   */
+  default void name(@NonNull CharSequence name) {
+  }
+
+  /**
+   * Called with a string.
+   *
+   * @param value the string, which is valid only until this method returns.
+   */
+  default void value(@NonNull CharSequence value) {
+  }
+
+  /**
+   * Called with an integer number in the range of {@code long}.
+   *
+   * @param value the integer number.
+   */
+  default void value(long value) {
+  }
+
+  /**
+   * Called with an integer number out of the range of {@code long}.
+   *
+   * <p>By default, this calls {@link #value(double)} with the nearest {@code double}.</p>
+   *
+   * @param value the integer number.
+   */
+  default void value(@NonNull BigInteger value) {
+    value(value.doubleValue());
+  }
+
+  /**
+   * Called with a floating-point number.
+   *
+   * @param value the floating-point number.
+   */
+  default void value(double value) {
+  }
+
+  /**
+   * Called with {@code true} or {@code false}.
+   *
+   * @param value the boolean value.
+   */
+  default void value(boolean value) {
+  }
+
+  /**
+   * Called with {@code null}.
+   */
+  default void nullValue() {
+  }
+}
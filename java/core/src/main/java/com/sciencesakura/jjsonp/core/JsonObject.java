@@ -25,6 +25,9 @@ public final class JsonObject implements JsonValue {
 
   private final SequencedMap<String, JsonValue> pairs;
 
+  // computed when first needed, or 0 if not yet
+  private transient int hash;
+
   /**
    * Constructs a JSON object with the specified name-value pairs.
    *
@@ -34,6 +37,10 @@ public final class JsonObject implements JsonValue {
     this.pairs = Collections.unmodifiableSequencedMap(pairs);
   }
 
+  JsonObject(ValueMap pairs) {
+    this.pairs = pairs;
+  }
+
   /**
    * Returns the value associated with the specified name.
    *
@@ -94,7 +101,12 @@ public final class JsonObject implements JsonValue {
 
   @Override
   public int hashCode() {
-    return pairs.hashCode();
+    var hash = this.hash;
+    if (hash == 0) {
+      hash = pairs.hashCode();
+      this.hash = hash;
+    }
+    return hash;
   }
 
   @Override
@@ -0,0 +1,276 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A parser which is reused for many inputs, keeping its buffers between them.
+ *
+ * <p>Parsing with {@link JJson#parse(byte[])} sets up a source, a lexer, a reader and a parser, with their buffers,
+ * for every input. For a large number of small inputs, that setup may cost as much as parsing itself; a reusable
+ * parser sets them up only once, and {@link #reset(byte[])} merely points them to the next input.</p>
+ *
+ * <pre>{@code
+ * var parser = JsonParser.of();
+ * for (var message : messages) {
+ *   var value = parser.reset(message).parse();
+ *   ...
+ * }
+ * }</pre>
+ *
+ * <p>The values parsed do not refer to the buffers, so they stay valid after the parser is reset. Once an exception
+ * has been thrown, the parser can still be used after being reset. Instances are not thread-safe.</p>
+ */
+public final class JsonParser {
+
+  private static final byte[] EMPTY = {};
+
+  // the largest channel buffer or segment window, the most elements of an array and the deepest nesting which are kept when the parser
+  // is returned to the pool
+  private static final int MAX_POOLED_BUFFER_SIZE = 1 << 16;
+
+  private static final int SEGMENT_WINDOW_SIZE = 8192;
+
+  // the parsers used by JJson.parse, which are not bound to threads so that virtual threads can share them
+  private static final Pool POOL = new Pool(Math.min(64, Runtime.getRuntime().availableProcessors() * 2));
+
+  private final ArraySource arraySource = new ArraySource(EMPTY, 0, 0);
+
+  // created when a channel is read for the first time
+  private ChannelSource channelSource;
+
+  // created when a segment is read for the first time
+  private SegmentSource segmentSource;
+
+  private final Lexer lexer;
+
+  private final JsonReader reader;
+
+  private final Parser parser;
+
+  private ParserOptions options;
+
+  private JsonParser(ParserOptions options) {
+    this.options = options;
+    this.lexer = new Lexer(arraySource, options);
+    this.reader = new JsonReader(lexer, options);
+    this.parser = new Parser(reader, options);
+  }
+
+  /**
+   * Returns a new parser, whose input is empty until it is reset.
+   *
+   * @return the parser.
+   */
+  @NonNull
+  public static JsonParser of() {
+    return of(ParserOptions.DEFAULT);
+  }
+
+  /**
+   * Returns a new parser with the specified options, whose input is empty until it is reset.
+   *
+   * @param options the parser options.
+   * @return the parser.
+   */
+  @NonNull
+  public static JsonParser of(@NonNull ParserOptions options) {
+    return new JsonParser(Objects.requireNonNull(options, "options"));
+  }
+
+  /**
+   * Makes the given byte array the input of this parser, discarding the previous one.
+   *
+   * @param bytes the byte array to read JSON from.
+   * @return this parser.
+   */
+  @NonNull
+  public JsonParser reset(byte @NonNull [] bytes) {
+    return reset(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Makes the given range of the byte array the input of this parser, discarding the previous one.
+   *
+   * @param bytes  the byte array to read JSON from.
+   * @param offset the index of the first byte to read.
+   * @param length the number of bytes to read.
+   * @return this parser.
+   * @throws IndexOutOfBoundsException if the range is out of bounds of the array.
+   */
+  @NonNull
+  public JsonParser reset(byte @NonNull [] bytes, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    arraySource.reset(bytes, offset, length);
+    start(arraySource);
+    return this;
+  }
+
+  /**
+   * Makes the given channel the input of this parser, discarding the previous one.
+   *
+   * <p>The buffer for reading the channel is kept while the same buffer size is given.</p>
+   *
+   * @param channel    the channel to read JSON from.
+   * @param bufferSize the buffer size in bytes.
+   * @return this parser.
+   * @throws IOException if an I/O error occurs.
+   */
+  @NonNull
+  public JsonParser reset(@NonNull ReadableByteChannel channel, int bufferSize) throws IOException {
+    Objects.requireNonNull(channel, "channel");
+    if (channelSource == null) {
+      channelSource = new ChannelSource(channel, bufferSize);
+    } else {
+      channelSource.reset(channel, bufferSize);
+    }
+    start(channelSource);
+    return this;
+  }
+
+  /**
+   * Makes the given segment the input of this parser, discarding the previous one. The window which the segment is
+   * copied into is kept.
+   */
+  JsonParser reset(MemorySegment segment) {
+    if (segmentSource == null) {
+      segmentSource = new SegmentSource(segment, SEGMENT_WINDOW_SIZE);
+    } else {
+      segmentSource.reset(segment);
+    }
+    start(segmentSource);
+    return this;
+  }
+
+  /**
+   * Parses the input.
+   *
+   * <p>Like {@link JJson#parse(byte[])}, only one value is read; once it has been, the input is considered empty.</p>
+   *
+   * @return the parsed JSON value, or {@link Optional#empty()} if the input is empty.
+   * @throws ParserException if the JSON text is invalid.
+   */
+  @NonNull
+  public Optional<JsonValue> parse() {
+    return parser.parse();
+  }
+
+  /**
+   * Parses the given range of the byte array with a pooled parser.
+   */
+  static Optional<JsonValue> parse(byte[] bytes, int offset, int length, ParserOptions options) {
+    var parser = POOL.acquire(options);
+    try {
+      return parser.reset(bytes, offset, length).parse();
+    } finally {
+      POOL.release(parser);
+    }
+  }
+
+  /**
+   * Parses the given channel with a pooled parser.
+   */
+  static Optional<JsonValue> parse(ReadableByteChannel channel, int bufferSize, ParserOptions options)
+      throws IOException {
+    var parser = POOL.acquire(options);
+    try {
+      return parser.reset(channel, bufferSize).parse();
+    } finally {
+      POOL.release(parser);
+    }
+  }
+
+  /**
+   * Parses the given segment with a pooled parser.
+   */
+  static Optional<JsonValue> parse(MemorySegment segment, ParserOptions options) {
+    var parser = POOL.acquire(options);
+    try {
+      return parser.reset(segment).parse();
+    } finally {
+      POOL.release(parser);
+    }
+  }
+
+  private void start(Source source) {
+    lexer.init(source, options);
+    reader.reset(options);
+    parser.reset(options);
+  }
+
+  /**
+   * Drops the references to the input and the values, so that a pooled parser does not keep them alive.
+   */
+  private void clear() {
+    arraySource.reset(EMPTY, 0, 0);
+    start(arraySource);
+    reader.trim(MAX_POOLED_BUFFER_SIZE);
+    parser.trim(MAX_POOLED_BUFFER_SIZE);
+    if (channelSource != null) {
+      if (MAX_POOLED_BUFFER_SIZE < channelSource.buffer.length) {
+        channelSource = null;
+      } else {
+        channelSource.clear();
+      }
+    }
+    if (segmentSource != null) {
+      if (MAX_POOLED_BUFFER_SIZE < segmentSource.buffer.length) {
+        segmentSource = null;
+      } else {
+        segmentSource.clear();
+      }
+    }
+  }
+
+  /**
+   * A bounded pool of parsers, which neither blocks nor locks. A parser is taken out of a slot by swapping it with
+   * {@code null}, and put back into an empty slot; when all the slots are empty, a new parser is created, and when
+   * all are full, the returned parser is dropped.
+   */
+  private static final class Pool {
+
+    private final AtomicReferenceArray<JsonParser> slots;
+
+    Pool(int size) {
+      this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    JsonParser acquire(ParserOptions options) {
+      var start = start();
+      for (var i = 0; i < slots.length(); i++) {
+        var slot = (start + i) % slots.length();
+        if (slots.get(slot) != null) {
+          var parser = slots.getAndSet(slot, null);
+          if (parser != null) {
+            parser.options = options;
+            return parser;
+          }
+        }
+      }
+      return new JsonParser(options);
+    }
+
+    void release(JsonParser parser) {
+      parser.clear();
+      var start = start();
+      for (var i = 0; i < slots.length(); i++) {
+        var slot = (start + i) % slots.length();
+        if (slots.get(slot) == null && slots.compareAndSet(slot, null, parser)) {
+          return;
+        }
+      }
+    }
+
+    // the threads start searching at different slots to contend less
+    private int start() {
+      return (int) (Thread.currentThread().threadId() % slots.length());
+    }
+  }
+}
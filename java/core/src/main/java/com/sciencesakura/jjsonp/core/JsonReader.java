@@ -0,0 +1,490 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A pull parser which reads a JSON text as a sequence of events.
+ *
+ * <p>Unlike {@link JJson#parse(byte[])}, this does not build a tree of {@link JsonValue}s; the value of the current
+ * event is held in the reader until the next event is read, so that a JSON text larger than the memory can be read
+ * in constant memory. The reader checks that the events form a valid JSON value, and reads nothing after it.</p>
+ *
+ * <pre>{@code
+ * var reader = JJson.reader(bytes);
+ * while (reader.hasNext()) {
+ *   switch (reader.next()) {
+ *     case NAME -> System.out.println(reader.getString());
+ *     case START_OBJECT, START_ARRAY -> reader.skipValue();
+ *     default -> {}
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class JsonReader {
+
+  private static final byte ARRAY = 0;
+
+  private static final byte OBJECT = 1;
+
+  private final Tokenizer tokenizer;
+
+  private int maxDepth;
+
+  private byte[] containers = new byte[16];
+
+  private int depth;
+
+  private State state = State.VALUE;
+
+  // whether the input is a part of a value, which may end between the elements or members of the outermost value
+  private boolean partial;
+
+  // the token read ahead by hasNext
+  private Tokenizer.Kind kind;
+
+  private Tokenizer.Kind valueKind;
+
+  private Event event;
+
+  JsonReader(Tokenizer tokenizer, ParserOptions options) {
+    this.tokenizer = tokenizer;
+    this.maxDepth = options.maxDepth();
+  }
+
+  /**
+   * Returns {@code true} if there are more events.
+   *
+   * @return {@code true} if there are more events.
+   * @throws ParserException if the JSON text is invalid.
+   */
+  public boolean hasNext() {
+    if (state == State.DONE) {
+      return false;
+    }
+    if (state == State.VALUE && depth == 0 && kind == null) {
+      // the input may be empty
+      kind = tokenizer.advance();
+      if (kind == null) {
+        state = State.DONE;
+        return false;
+      }
+    }
+    if (partial && state == State.COMMA && depth == 1 && kind == null) {
+      kind = tokenizer.advance();
+      if (kind == null) {
+        state = State.DONE;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the next event.
+   *
+   * @return the next event.
+   * @throws NoSuchElementException if there are no more events.
+   * @throws ParserException if the JSON text is invalid.
+   */
+  @NonNull
+  public Event next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    var kind = this.kind != null ? this.kind : tokenizer.advance();
+    this.kind = null;
+    event = switch (state) {
+      case VALUE -> startValue(kind);
+      case FIRST_ELEMENT -> kind == Tokenizer.Kind.RIGHT_BRACKET ? endContainer() : startValue(kind);
+      case FIRST_MEMBER -> kind == Tokenizer.Kind.RIGHT_CURLY ? endContainer() : name(kind);
+      case COLON -> {
+        if (kind != Tokenizer.Kind.COLON) {
+          throw unexpected(kind);
+        }
+        yield startValue(tokenizer.advance());
+      }
+      case COMMA -> {
+        var inArray = containers[depth - 1] == ARRAY;
+        if (kind == Tokenizer.Kind.COMMA) {
+          yield inArray ? startValue(tokenizer.advance()) : name(tokenizer.advance());
+        } else if (kind == (inArray ? Tokenizer.Kind.RIGHT_BRACKET : Tokenizer.Kind.RIGHT_CURLY)) {
+          yield endContainer();
+        }
+        throw unexpected(kind);
+      }
+      case DONE -> throw new IllegalStateException();
+    };
+    return event;
+  }
+
+  /**
+   * Skips the current value.
+   *
+   * <p>If the current event is {@link Event#START_ARRAY} or {@link Event#START_OBJECT}, this skips the events up to
+   * and including the corresponding end event. If the current event is {@link Event#NAME}, this skips the value of
+   * the member. Otherwise, this does nothing.</p>
+   *
+   * @throws ParserException if the JSON text is invalid.
+   */
+  public void skipValue() {
+    if (event == Event.NAME) {
+      next();
+    }
+    if (event == Event.START_ARRAY || event == Event.START_OBJECT) {
+      var target = depth - 1;
+      while (target < depth) {
+        next();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of arrays and objects enclosing the current position.
+   *
+   * <p>The depth is 1 just after {@link Event#START_ARRAY} or {@link Event#START_OBJECT} of the outermost value, and 0
+   * just after the corresponding end event.</p>
+   *
+   * @return the number of arrays and objects enclosing the current position.
+   */
+  public int currentDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the current string or member name.
+   *
+   * @return the current string or member name.
+   * @throws IllegalStateException if the current event is neither {@link Event#STRING} nor {@link Event#NAME}.
+   */
+  @NonNull
+  public String getString() {
+    if (event != Event.STRING && event != Event.NAME) {
+      throw new IllegalStateException("Not a string: " + event);
+    }
+    return event == Event.NAME ? tokenizer.name() : tokenizer.text();
+  }
+
+  /**
+   * Returns the current integer number.
+   *
+   * @return the current integer number.
+   * @throws IllegalStateException if the current event is not {@link Event#INTEGER}.
+   * @throws ArithmeticException if the number is out of the range of {@code long}.
+   */
+  public long getLong() {
+    if (event != Event.INTEGER) {
+      throw new IllegalStateException("Not an integer: " + event);
+    }
+    return valueKind == Tokenizer.Kind.INTEGER ? tokenizer.longValue() : new BigInteger(tokenizer.text()).longValueExact();
+  }
+
+  /**
+   * Returns the current number as the nearest {@code double}.
+   *
+   * @return the current number as the nearest {@code double}.
+   * @throws IllegalStateException if the current event is neither {@link Event#INTEGER} nor {@link Event#FLOAT}.
+   */
+  public double getDouble() {
+    if (event != Event.INTEGER && event != Event.FLOAT) {
+      throw new IllegalStateException("Not a number: " + event);
+    }
+    return switch (valueKind) {
+      case INTEGER -> tokenizer.longValue();
+      case FLOAT -> tokenizer.doubleValue();
+      default -> Double.parseDouble(tokenizer.text());
+    };
+  }
+
+  /**
+   * Prepares to read a new input from the beginning, for reusing this reader after its tokenizer has been reset.
+   */
+  void reset(ParserOptions options) {
+    maxDepth = options.maxDepth();
+    depth = 0;
+    state = State.VALUE;
+    partial = false;
+    kind = null;
+    valueKind = null;
+    event = null;
+  }
+
+  /**
+   * Drops the stack of containers if it has grown deeper than the given depth, so that a pooled reader does not keep
+   * the memory taken by its most deeply nested input.
+   */
+  void trim(int maxDepth) {
+    if (maxDepth < containers.length) {
+      containers = new byte[16];
+    }
+  }
+
+  /**
+   * Prepares to read the next value after the current one has been read to the end, for inputs consisting of
+   * multiple values.
+   */
+  void restart() {
+    if (state == State.DONE) {
+      state = State.VALUE;
+    }
+  }
+
+  /**
+   * Prepares to read a part of the outermost array or object, for parsing a large value in parallel.
+   *
+   * <p>If {@code separated} is {@code true}, the part starts with a comma between the elements or members, otherwise
+   * it starts with the value itself. The reader ends at the end of the input between the elements or members, where
+   * the depth remains 1, as well as at the end of the value.</p>
+   */
+  void readPart(Event container, boolean separated) {
+    partial = true;
+    if (separated) {
+      containers[depth++] = container == Event.START_ARRAY ? ARRAY : OBJECT;
+      state = State.COMMA;
+    }
+  }
+
+  /**
+   * Skips the value of the current member without reading its tokens.
+   *
+   * @see Tokenizer#skip(int)
+   */
+  void skipMemberValue() {
+    if (event != Event.NAME) {
+      throw new IllegalStateException("Not a name: " + event);
+    }
+    var kind = tokenizer.advance();
+    if (kind != Tokenizer.Kind.COLON) {
+      throw unexpected(kind);
+    }
+    tokenizer.skip(0);
+    state = State.COMMA;
+    event = null;
+  }
+
+  /**
+   * Skips the next element of the current array without reading its tokens, or reads the end of the array if it comes
+   * first.
+   *
+   * @return {@code false} if the end of the array has been read instead, which is then the current event.
+   * @see Tokenizer#skipElement()
+   */
+  boolean skipElement() {
+    if (depth == 0 || containers[depth - 1] != ARRAY || (state != State.FIRST_ELEMENT && state != State.COMMA)) {
+      throw new IllegalStateException("Not between elements: " + event);
+    }
+    if (state == State.COMMA) {
+      var kind = tokenizer.advance();
+      if (kind == Tokenizer.Kind.RIGHT_BRACKET) {
+        event = endContainer();
+        return false;
+      }
+      if (kind != Tokenizer.Kind.COMMA) {
+        throw unexpected(kind);
+      }
+      tokenizer.skip(0);
+    } else if (!tokenizer.skipElement()) {
+      event = endContainer();
+      return false;
+    }
+    state = State.COMMA;
+    event = null;
+    return true;
+  }
+
+  /**
+   * Skips the rest of the current array or object without reading its tokens, so that the next event follows its
+   * end.
+   *
+   * @see Tokenizer#skip(int)
+   */
+  void skipRest() {
+    if (depth == 0 || state == State.COLON) {
+      throw new IllegalStateException("Not between values: " + event);
+    }
+    tokenizer.skip(1);
+    event = endContainer();
+  }
+
+  /**
+   * Reads the rest of the events, calling back the given handler.
+   */
+  void accept(JsonHandler handler) {
+    while (hasNext()) {
+      dispatch(next(), handler);
+    }
+  }
+
+  /**
+   * Calls back the given handler for the given event, which has just been read.
+   */
+  void dispatch(Event event, JsonHandler handler) {
+    switch (event) {
+      case START_ARRAY -> handler.startArray();
+      case END_ARRAY -> handler.endArray();
+      case START_OBJECT -> handler.startObject();
+      case END_OBJECT -> handler.endObject();
+      case NAME -> handler.name(tokenizer.textView());
+      case STRING -> handler.value(tokenizer.textView());
+      case INTEGER -> {
+        if (valueKind == Tokenizer.Kind.INTEGER) {
+          handler.value(tokenizer.longValue());
+        } else {
+          handler.value(new BigInteger(tokenizer.text()));
+        }
+      }
+      case FLOAT -> handler.value(getDouble());
+      case TRUE -> handler.value(true);
+      case FALSE -> handler.value(false);
+      case NULL -> handler.nullValue();
+    }
+  }
+
+  /**
+   * Forgets the token read ahead, after the tokenizer has gone back to read it again.
+   */
+  void unread() {
+    kind = null;
+  }
+
+  private Event startValue(Tokenizer.Kind kind) {
+    valueKind = kind;
+    return switch (kind) {
+      case LEFT_BRACKET -> startContainer(ARRAY, State.FIRST_ELEMENT, Event.START_ARRAY);
+      case LEFT_CURLY -> startContainer(OBJECT, State.FIRST_MEMBER, Event.START_OBJECT);
+      case TRUE -> endValue(Event.TRUE);
+      case FALSE -> endValue(Event.FALSE);
+      case NULL -> endValue(Event.NULL);
+      case STRING -> endValue(Event.STRING);
+      case INTEGER, BIG_INTEGER -> endValue(Event.INTEGER);
+      case FLOAT, DECIMAL -> endValue(Event.FLOAT);
+      case null, default -> throw unexpected(kind);
+    };
+  }
+
+  private Event name(Tokenizer.Kind kind) {
+    if (kind != Tokenizer.Kind.STRING) {
+      throw unexpected(kind);
+    }
+    state = State.COLON;
+    return Event.NAME;
+  }
+
+  /**
+   * Returns the value of the current string, number or literal.
+   */
+  JsonValue scalarValue() {
+    return switch (valueKind) {
+      case TRUE -> JsonBool.TRUE;
+      case FALSE -> JsonBool.FALSE;
+      case NULL -> JsonNull.INSTANCE;
+      case STRING -> new JsonString(tokenizer.text());
+      case INTEGER -> new JsonInteger(tokenizer.longValue());
+      case FLOAT -> new JsonFloat(tokenizer.doubleValue());
+      case BIG_INTEGER -> JsonBigInteger.ofText(tokenizer.text());
+      case DECIMAL -> JsonDecimal.ofText(tokenizer.text());
+      default -> throw new IllegalStateException("Not a scalar: " + event);
+    };
+  }
+
+  /**
+   * Returns the kind of the token of the current value.
+   */
+  Tokenizer.Kind valueKind() {
+    return valueKind;
+  }
+
+  /**
+   * Returns the text of the current string, member name or number without building a string.
+   */
+  CharSequence textView() {
+    return tokenizer.textView();
+  }
+
+  /**
+   * Returns an exception reporting that the current value is not expected.
+   */
+  ParserException unexpectedValue() {
+    return unexpected(valueKind);
+  }
+
+  private Event startContainer(byte container, State state, Event event) {
+    if (depth == maxDepth) {
+      throw ParserException.tooDeep(maxDepth, tokenizer.tokenLine(), tokenizer.tokenColumn());
+    }
+    if (depth == containers.length) {
+      containers = Arrays.copyOf(containers, depth * 2);
+    }
+    containers[depth++] = container;
+    this.state = state;
+    return event;
+  }
+
+  private Event endContainer() {
+    var event = containers[--depth] == ARRAY ? Event.END_ARRAY : Event.END_OBJECT;
+    return endValue(event);
+  }
+
+  private Event endValue(Event event) {
+    state = depth == 0 ? State.DONE : State.COMMA;
+    return event;
+  }
+
+  private ParserException unexpected(Tokenizer.Kind kind) {
+    return kind == null ? ParserException.unexpectedEOF() : ParserException.unexpectedToken(tokenizer.toToken(kind));
+  }
+
+  /**
+   * The events of {@link JsonReader}.
+   */
+  public enum Event {
+
+    /** The start of an array. */
+    START_ARRAY,
+
+    /** The end of an array. */
+    END_ARRAY,
+
+    /** The start of an object. */
+    START_OBJECT,
+
+    /** The end of an object. */
+    END_OBJECT,
+
+    /** The name of an object member. */
+    NAME,
+
+    /** A string. */
+    STRING,
+
+    /** An integer number. */
+    INTEGER,
+
+    /** A floating-point number. */
+    FLOAT,
+
+    /** The literal {@code true}. */
+    TRUE,
+
+    /** The literal {@code false}. */
+    FALSE,
+
+    /** The literal {@code null}. */
+    NULL,
+  }
+
+  private enum State {
+    VALUE,
+    FIRST_ELEMENT,
+    FIRST_MEMBER,
+    COLON,
+    COMMA,
+    DONE,
+  }
+}
@@ -7,6 +7,6 @@ import java.io.Serializable;
 /**
  * Represents a JSON value.
  */
-public sealed interface JsonValue extends Serializable permits JsonArray, JsonBool, JsonFloat, JsonInteger, JsonNull,
-    JsonObject, JsonString {
+public sealed interface JsonValue extends Serializable permits JsonArray, JsonBigInteger, JsonBool,
+    JsonDecimal, JsonFloat, JsonInteger, JsonNull, JsonObject, JsonString {
 }
@@ -0,0 +1,425 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A parser which builds arrays and objects whose elements and members are parsed on demand.
+ *
+ * <p>An array or object only records its range of the input until it is accessed. On the first access, its elements
+ * or members are located by scanning the range once, where the names are decoded but the values are skipped over by
+ * matching the brackets and quotes, without being tokenized. Each value is parsed the first time it is accessed, and
+ * then cached. So the values never accessed are neither parsed nor checked.</p>
+ *
+ * <p>The arrays and objects may be accessed concurrently: the scan of a range and the parse of a value may be
+ * repeated by racing threads, but only the first result is kept and returned to all of them.</p>
+ */
+final class LazyParser {
+
+  private final byte[] bytes;
+
+  // the range of the input, to which the line and column numbers are relative
+  private final int offset;
+
+  private final int limit;
+
+  private final ParserOptions options;
+
+  private final int maxDepth;
+
+  LazyParser(byte[] bytes, int offset, int length, ParserOptions options) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.limit = offset + length;
+    // each part is lexed on its own, so indexing the whole input would be wasted, and the lexers share one cache of
+    // names
+    this.options = options.withStructuralIndex(false).withNameCacheShared();
+    this.maxDepth = options.maxDepth();
+  }
+
+  Optional<JsonValue> parse() {
+    var from = skipWhitespace(offset, limit);
+    if (from == limit) {
+      return Optional.empty();
+    }
+    if (bytes[from] != '[' && bytes[from] != '{') {
+      // the bytes after the value are ignored, as the other parsers do
+      try {
+        return new Parser(new JsonReader(new Lexer(new ArraySource(bytes, from, limit - from), options), options),
+            options).parse();
+      } catch (ParserException e) {
+        throw shift(e, from);
+      }
+    }
+    return Optional.of(value(from, limit, 1));
+  }
+
+  /**
+   * Returns the value starting at {@code from} in the given range, whose depth is the given one if it is an array or
+   * an object.
+   */
+  private JsonValue value(int from, int to, int depth) {
+    var b = bytes[from];
+    if (b == '[' || b == '{') {
+      if (maxDepth < depth) {
+        throw ParserException.tooDeep(maxDepth, lineAt(from), columnAt(from));
+      }
+      return b == '[' ? new JsonArray(new Elements(this, from, to, depth))
+          : new JsonObject(new Members(this, from, to, depth));
+    }
+    // lexed up to the end of the input rather than of the value, so that a value cut short is reported at the byte
+    // after it, as the other parsers do
+    var source = new ArraySource(bytes, from, limit - from);
+    var lexer = new Lexer(source, options);
+    try {
+      var reader = new JsonReader(lexer, options);
+      reader.next();
+      var value = reader.scalarValue();
+      if (source.position < to) {
+        throw ParserException.unexpectedToken(lexer.toToken(lexer.advance()));
+      }
+      return value;
+    } catch (ParserException e) {
+      throw shift(e, from);
+    }
+  }
+
+  /**
+   * Locates the elements or members of the array or object in the given range.
+   */
+  private Slots scan(int from, int to, boolean object) {
+    var source = new ArraySource(bytes, from, to - from);
+    var lexer = new Lexer(source, options);
+    var slots = new Slots(object);
+    try {
+      lexer.advance();
+      var close = object ? Tokenizer.Kind.RIGHT_CURLY : Tokenizer.Kind.RIGHT_BRACKET;
+      while (true) {
+        String name = null;
+        if (object) {
+          var kind = lexer.advance();
+          if (kind == close && slots.size == 0) {
+            break;
+          }
+          expect(lexer, kind, Tokenizer.Kind.STRING);
+          name = lexer.name();
+          expect(lexer, lexer.advance(), Tokenizer.Kind.COLON);
+        }
+        var start = skipWhitespace(source.position, to);
+        if (!object && slots.size == 0 && start < to && bytes[start] == ']') {
+          source.position = start + 1;
+          break;
+        }
+        var end = skipValue(start, to);
+        if (start == end) {
+          // not a value
+          source.position = start;
+          expect(lexer, lexer.advance(), null);
+        }
+        slots.add(name, start, end);
+        // the line and column numbers of the lexer are no longer correct, but they are not used
+        source.position = end;
+        var kind = lexer.advance();
+        if (kind == close) {
+          break;
+        }
+        expect(lexer, kind, Tokenizer.Kind.COMMA);
+      }
+    } catch (ParserException e) {
+      throw locate(from, to, e);
+    }
+    return slots.trim();
+  }
+
+  /**
+   * Returns the value in the given slot, parsing and caching it if it has not been yet.
+   */
+  private JsonValue element(Slots slots, int index, int depth) {
+    var value = slots.values.get(index);
+    if (value == null) {
+      value = value(slots.starts[index], slots.ends[index], depth + 1);
+      var witness = slots.values.compareAndExchange(index, null, value);
+      if (witness != null) {
+        value = witness;
+      }
+    }
+    return value;
+  }
+
+  private int skipWhitespace(int from, int to) {
+    var i = from;
+    while (i < to && Characters.isWhitespace(bytes[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Returns the end of the value starting at {@code from}, only matching the brackets and quotes.
+   */
+  private int skipValue(int from, int to) {
+    var depth = 0;
+    var i = from;
+    while (i < to) {
+      var b = bytes[i];
+      if (b == '"') {
+        i = skipString(i + 1, to);
+        if (depth == 0) {
+          return i;
+        }
+        continue;
+      }
+      if (b == '[' || b == '{') {
+        depth++;
+      } else if (b == ']' || b == '}') {
+        if (depth <= 1) {
+          return depth == 0 ? i : i + 1;
+        }
+        depth--;
+      } else if (depth == 0 && (b == ',' || b == ':' || Characters.isWhitespace(b))) {
+        return i;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Returns the index just after the closing quote of the string whose content starts at {@code from}.
+   */
+  private int skipString(int from, int to) {
+    var i = from;
+    while (i < to) {
+      if (i + 8 <= to) {
+        var w = Swar.read(bytes, i);
+        var mask = Swar.eq(w, '"') | Swar.eq(w, '\\');
+        if (mask == 0) {
+          i += 8;
+          continue;
+        }
+        i += Long.numberOfTrailingZeros(mask) >>> 3;
+      }
+      var b = bytes[i];
+      if (b == '"') {
+        return i + 1;
+      }
+      i += b == '\\' ? 2 : 1;
+    }
+    return to;
+  }
+
+  private static void expect(Lexer lexer, Tokenizer.Kind kind, Tokenizer.Kind expected) {
+    if (kind == null) {
+      throw ParserException.unexpectedEOF();
+    }
+    if (kind != expected) {
+      throw ParserException.unexpectedToken(lexer.toToken(kind));
+    }
+  }
+
+  /**
+   * Returns an exception at the right position for an error found while scanning the given range, by parsing the
+   * range as usual.
+   */
+  private ParserException locate(int from, int to, ParserException e) {
+    var options = this.options.withMaxDepth(Integer.MAX_VALUE);
+    try {
+      new Parser(new JsonReader(new Lexer(new ArraySource(bytes, from, to - from), options), options), options).parse();
+    } catch (ParserException located) {
+      return shift(located, from);
+    }
+    return e;
+  }
+
+  private ParserException shift(ParserException e, int offset) {
+    return e.shift(lineAt(offset) - 1, columnAt(offset) - 1);
+  }
+
+  private long lineAt(int offset) {
+    var line = 1L;
+    for (var i = this.offset; i < offset; i++) {
+      if (bytes[i] == '\n') {
+        line++;
+      }
+    }
+    return line;
+  }
+
+  private long columnAt(int offset) {
+    var column = 1L;
+    for (var i = offset - 1; this.offset <= i && bytes[i] != '\n'; i--) {
+      // the continuation bytes of UTF-8 are not counted
+      if ((bytes[i] & 0xC0) != 0x80) {
+        column++;
+      }
+    }
+    return column;
+  }
+
+  /**
+   * Sets the {@code slots} field of the given array or object to the given slots unless another thread has set it
+   * first, and returns the slots set, so that all threads use the same ones and the values cached in them.
+   */
+  private static Slots publish(VarHandle handle, Object owner, Slots slots) {
+    var witness = (Slots) handle.compareAndExchange(owner, (Slots) null, slots);
+    return witness == null ? slots : witness;
+  }
+
+  private static VarHandle slotsHandle(Class<?> owner) {
+    try {
+      return MethodHandles.lookup().findVarHandle(owner, "slots", Slots.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * The located elements or members of an array or object.
+   */
+  private static final class Slots {
+
+    // the distinct names in order and their indices, or null for an array
+    final LinkedHashMap<String, Integer> names;
+
+    int[] starts = new int[8];
+
+    int[] ends = new int[8];
+
+    int size;
+
+    AtomicReferenceArray<JsonValue> values;
+
+    Slots(boolean object) {
+      this.names = object ? new LinkedHashMap<>() : null;
+    }
+
+    void add(String name, int start, int end) {
+      var index = size;
+      if (names != null) {
+        // a duplicate name keeps its position and takes the last value
+        var previous = names.putIfAbsent(name, index);
+        if (previous != null) {
+          starts[previous] = start;
+          ends[previous] = end;
+          return;
+        }
+      }
+      if (index == starts.length) {
+        starts = Arrays.copyOf(starts, index * 2);
+        ends = Arrays.copyOf(ends, index * 2);
+      }
+      starts[index] = start;
+      ends[index] = end;
+      size++;
+    }
+
+    Slots trim() {
+      values = new AtomicReferenceArray<>(size);
+      return this;
+    }
+  }
+
+  /**
+   * The elements of an array, which are parsed on demand.
+   */
+  static final class Elements extends ValueList implements RandomAccess {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final VarHandle SLOTS = slotsHandle(Elements.class);
+
+    private final transient LazyParser parser;
+
+    private final int from;
+
+    private final int to;
+
+    private final int depth;
+
+    private transient volatile Slots slots;
+
+    Elements(LazyParser parser, int from, int to, int depth) {
+      this.parser = parser;
+      this.from = from;
+      this.to = to;
+      this.depth = depth;
+    }
+
+    @Override
+    public JsonValue get(int index) {
+      var slots = slots();
+      Objects.checkIndex(index, slots.size);
+      return parser.element(slots, index, depth);
+    }
+
+    @Override
+    public int size() {
+      return slots().size;
+    }
+
+    private Slots slots() {
+      var slots = this.slots;
+      if (slots == null) {
+        slots = publish(SLOTS, this, parser.scan(from, to, false));
+      }
+      return slots;
+    }
+  }
+
+  /**
+   * The members of an object, whose values are parsed on demand.
+   */
+  static final class Members extends ValueMap {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final VarHandle SLOTS = slotsHandle(Members.class);
+
+    private final transient LazyParser parser;
+
+    private final int from;
+
+    private final int to;
+
+    private final int depth;
+
+    private transient volatile Slots slots;
+
+    Members(LazyParser parser, int from, int to, int depth) {
+      this.parser = parser;
+      this.from = from;
+      this.to = to;
+      this.depth = depth;
+    }
+
+    @Override
+    Map<String, Integer> slots() {
+      return located().names;
+    }
+
+    @Override
+    JsonValue value(int slot) {
+      return parser.element(located(), slot, depth);
+    }
+
+    private Slots located() {
+      var slots = this.slots;
+      if (slots == null) {
+        slots = publish(SLOTS, this, parser.scan(from, to, true));
+      }
+      return slots;
+    }
+  }
+}
@@ -5,27 +5,106 @@ package com.sciencesakura.jjsonp.core;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import org.jspecify.annotations.NonNull;
 
-final class Lexer implements Iterator<Token> {
+final class Lexer implements Iterator<Token>, Tokenizer {
 
   private static final int REPLACEMENT_CHAR = 0xFFFD;
 
-  private final Source source;
+  private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
 
-  private int bc = -1;
+  private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+  private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+  // the longest decoded string whose buffer is kept when this lexer is reused
+  private static final int MAX_KEPT_CHARS = 1 << 16;
+
+  private Source source;
+
+  private boolean strictUtf8;
+
+  private boolean exactDecimals;
+
+  private StructuralIndex index;
+
+  // the cache of the names shared by the options, or null if this lexer has its own
+  private NameCache sharedNames;
+
+  // this lexer's own cache of the names, which is created when a name is first read
+  private NameCache ownNames;
+
+  private int cursor;
+
+  private char[] chars = new char[64];
 
   private long line = 1;
 
   private long column;
 
-  private long prevColumn;
+  private long tokenLine;
+
+  private long tokenColumn;
+
+  private long longValue;
+
+  private double doubleValue;
+
+  // the string or number text of the current token, which is built on demand
+  private String text;
+
+  // the offset of the current string or number in the window if it is ASCII only, or -1 if it is decoded into chars
+  private int textOffset;
+
+  private int textLength;
+
+  private final CharSequence textView = new TextView();
 
   private Token current;
 
+  // the position to go back to when the input ends in the middle of a token which more input may complete
+  private int markPosition;
+
+  private long markLine;
+
+  private long markColumn;
+
   Lexer(ReadableByteChannel channel, int bufferSize) throws IOException {
-    this.source = new Source(channel, bufferSize);
+    this(new ChannelSource(channel, bufferSize));
+  }
+
+  Lexer(Source source) {
+    this(source, ParserOptions.DEFAULT);
+  }
+
+  Lexer(Source source, ParserOptions options) {
+    init(source, options);
+  }
+
+  /**
+   * Starts reading the given source from the beginning, for reusing this lexer. The buffer for decoding strings is
+   * kept unless it has grown large.
+   */
+  void init(Source source, ParserOptions options) {
+    this.source = source;
+    this.strictUtf8 = options.strictUtf8();
+    this.exactDecimals = options.exactDecimals();
+    this.index = options.structuralIndex() && source instanceof ArraySource
+        ? StructuralIndex.build(source.buffer, source.position, source.limit) : null;
+    this.sharedNames = options.nameCache();
+    if (MAX_KEPT_CHARS < chars.length) {
+      chars = new char[64];
+    }
+    cursor = 0;
+    line = 1;
+    column = 0;
+    text = null;
+    current = null;
   }
 
   @Override
@@ -33,76 +112,533 @@ final class Lexer implements Iterator<Token> {
     if (current != null) {
       return true;
     }
+    var kind = advance();
+    if (kind == null) {
+      return false;
+    }
+    current = toToken(kind);
+    return true;
+  }
+
+  @Override
+  public Token next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    var current = this.current;
+    this.current = null;
+    return current;
+  }
+
+  @Override
+  public Kind advance() {
     try {
-      int c;
-      do {
-        c = nextChar();
-      } while (Characters.isWhitespace(c));
-      if (c == -1) {
-        return false;
+      if (!skipWhitespace()) {
+        return null;
       }
-      current = switch (c) {
-        case '{' -> new Token.LeftCurly(line, column);
-        case '}' -> new Token.RightCurly(line, column);
-        case '[' -> new Token.LeftBracket(line, column);
-        case ']' -> new Token.RightBracket(line, column);
-        case ':' -> new Token.Colon(line, column);
-        case ',' -> new Token.Comma(line, column);
+      tokenLine = line;
+      tokenColumn = column + 1;
+      text = null;
+      var c = nextChar();
+      return switch (c) {
+        case '{' -> Kind.LEFT_CURLY;
+        case '}' -> Kind.RIGHT_CURLY;
+        case '[' -> Kind.LEFT_BRACKET;
+        case ']' -> Kind.RIGHT_BRACKET;
+        case ':' -> Kind.COLON;
+        case ',' -> Kind.COMMA;
         case '"' -> nextString();
         default -> {
           if (Characters.isAlpha(c)) {
-            yield nextKeyword(c);
+            yield nextKeyword();
           } else if (Characters.isDigit(c) || c == '-') {
-            yield nextNumber(c);
+            yield nextNumber();
           }
           throw ParserException.unexpectedCharacter(c, line, column);
         }
       };
-      return true;
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
   @Override
-  public Token next() {
-    if (!hasNext()) {
-      throw new NoSuchElementException();
+  public long tokenLine() {
+    return tokenLine;
+  }
+
+  @Override
+  public long tokenColumn() {
+    return tokenColumn;
+  }
+
+  @Override
+  public long longValue() {
+    return longValue;
+  }
+
+  @Override
+  public double doubleValue() {
+    if (Double.isNaN(doubleValue)) {
+      // the numbers which cannot be converted quickly are converted on demand
+      doubleValue = Double.parseDouble(text());
     }
-    var current = this.current;
-    this.current = null;
-    return current;
+    return doubleValue;
   }
 
-  private Token nextString() throws IOException {
-    var startColumn = column;
-    var str = new StringBuilder();
-    int c;
-    var escaped = false;
-    while ((c = nextChar()) != -1) {
-      if (escaped) {
-        escaped = false;
-        switch (c) {
-          case '"', '\\', '/' -> str.appendCodePoint(c);
-          case 'b' -> str.append('\b');
-          case 'f' -> str.append('\f');
-          case 'n' -> str.append('\n');
-          case 'r' -> str.append('\r');
-          case 't' -> str.append('\t');
-          case 'u' -> str.appendCodePoint(nextHex() << 12 | nextHex() << 8 | nextHex() << 4 | nextHex());
-          default -> throw ParserException.unexpectedCharacter(c, line, column);
+  @Override
+  public String text() {
+    var text = this.text;
+    if (text == null) {
+      text = textOffset == -1 ? new String(chars, 0, textLength)
+          : new String(source.buffer, textOffset, textLength, StandardCharsets.ISO_8859_1);
+      this.text = text;
+    }
+    return text;
+  }
+
+  @Override
+  public String name() {
+    var text = this.text;
+    if (text == null) {
+      var names = sharedNames;
+      if (names == null) {
+        if (ownNames == null) {
+          ownNames = NameCache.of(NameCache.DEFAULT_CAPACITY);
         }
-      } else if (c == '"') {
-        return new Token.String(line, startColumn, str.toString());
+        names = ownNames;
+      }
+      text = textOffset == -1 ? names.get(chars, textLength) : names.get(source.buffer, textOffset, textLength);
+      this.text = text;
+    }
+    return text;
+  }
+
+  @Override
+  public CharSequence textView() {
+    return textView;
+  }
+
+  @Override
+  public Token toToken(Kind kind) {
+    var line = tokenLine;
+    var column = tokenColumn;
+    return switch (kind) {
+      case LEFT_BRACKET -> new Token.LeftBracket(line, column);
+      case RIGHT_BRACKET -> new Token.RightBracket(line, column);
+      case LEFT_CURLY -> new Token.LeftCurly(line, column);
+      case RIGHT_CURLY -> new Token.RightCurly(line, column);
+      case COLON -> new Token.Colon(line, column);
+      case COMMA -> new Token.Comma(line, column);
+      case TRUE -> new Token.True(line, column);
+      case FALSE -> new Token.False(line, column);
+      case NULL -> new Token.Null(line, column);
+      case STRING -> new Token.String(line, column, text());
+      case INTEGER -> new Token.Integer(line, column, longValue);
+      case FLOAT -> new Token.Float(line, column, doubleValue());
+      case BIG_INTEGER -> new Token.BigInteger(line, column, text());
+      case DECIMAL -> new Token.Decimal(line, column, text());
+    };
+  }
+
+  /**
+   * Marks the current position, before the next token.
+   */
+  void mark() {
+    markPosition = source.position;
+    markLine = line;
+    markColumn = column;
+  }
+
+  /**
+   * Goes back to the marked position, so that the tokens after it are read again.
+   */
+  void reset() {
+    source.position = markPosition;
+    line = markLine;
+    column = markColumn;
+  }
+
+  /**
+   * Returns an exception reporting that the input ends at the current position.
+   */
+  ParserException unexpectedEOF() {
+    return ParserException.unexpectedEOF(line, column + 1);
+  }
+
+  @Override
+  public boolean skipElement() {
+    try {
+      if (!skipWhitespace()) {
+        throw ParserException.unexpectedEOF(line, column + 1);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (source.buffer[source.position] == ']') {
+      tokenLine = line;
+      tokenColumn = column + 1;
+      text = null;
+      source.position++;
+      column++;
+      return false;
+    }
+    skip(0);
+    return true;
+  }
+
+  @Override
+  public void skip(int depth) {
+    try {
+      if (!skipWhitespace()) {
+        throw ParserException.unexpectedEOF(line, column + 1);
+      }
+      tokenLine = line;
+      tokenColumn = column + 1;
+      text = null;
+      if (index != null && skipIndexed(depth)) {
+        return;
+      }
+      var s = source;
+      var inString = false;
+      var escaped = false;
+      do {
+        var buf = s.buffer;
+        var limit = s.limit;
+        while (s.position < limit) {
+          if (inString && !escaped && s.position + 8 <= limit) {
+            var w = Swar.read(buf, s.position);
+            if (((Swar.eq(w, '"') | Swar.eq(w, '\\') | Swar.eq(w, '\n')) | w & Swar.HIGH_BITS) == 0) {
+              s.position += 8;
+              column += 8;
+              continue;
+            }
+          }
+          var b = buf[s.position];
+          if (!inString && depth == 0 && (b == ']' || b == '}' || b == ',' || b == ':' || Characters.isWhitespace(b))) {
+            if (tokenLine == line && tokenColumn == column + 1) {
+              // nothing has been skipped
+              throw unexpectedNextChar();
+            }
+            return;
+          }
+          s.position++;
+          if (b == '\n') {
+            line++;
+            column = 0;
+          } else if ((b & 0xC0) != 0x80) {
+            // the continuation bytes of UTF-8 are not counted
+            column++;
+          }
+          if (inString) {
+            if (escaped) {
+              escaped = false;
+            } else if (b == '\\') {
+              escaped = true;
+            } else if (b == '"') {
+              inString = false;
+              if (depth == 0) {
+                return;
+              }
+            }
+          } else if (b == '"') {
+            inString = true;
+          } else if (b == '[' || b == '{') {
+            depth++;
+          } else if (b == ']' || b == '}') {
+            if (--depth == 0) {
+              return;
+            }
+          }
+        }
+      } while (s.fill());
+      if (inString || 0 < depth) {
+        throw ParserException.unexpectedEOF(line, column + 1);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Skips the rest of the array or object, or the array, object or string starting at the current position if
+   * {@code depth} is 0, by walking the structural index to its closing bracket or quotation mark, where only the
+   * brackets and the pairs of quotation marks need to be looked at.
+   *
+   * @return {@code false} if the value starting at the current position is none of them, which is not skipped.
+   */
+  private boolean skipIndexed(int depth) {
+    var s = source;
+    var buf = s.buffer;
+    if (depth == 0 && buf[s.position] != '[' && buf[s.position] != '{' && buf[s.position] != '"') {
+      return false;
+    }
+    var size = index.size();
+    var i = cursor;
+    var d = depth;
+    while (i < size) {
+      var p = index.get(i++);
+      var b = buf[p];
+      if (b == '"') {
+        if (i == size) {
+          break;
+        }
+        // the closing quotation mark is the next position, since nothing within strings is indexed
+        var close = index.get(i++);
+        if (d == 0) {
+          return skipIndexedTo(i, close + 1);
+        }
+      } else if (b == '[' || b == '{') {
+        d++;
+      } else if ((b == ']' || b == '}') && --d == 0) {
+        return skipIndexedTo(i, p + 1);
+      }
+    }
+    skipIndexedTo(size, s.limit);
+    throw ParserException.unexpectedEOF(line, column + 1);
+  }
+
+  /**
+   * Moves the current position forward to {@code end} and the cursor of the index to {@code next}, counting the lines
+   * and columns passed.
+   */
+  private boolean skipIndexedTo(int next, int end) {
+    var s = source;
+    var buf = s.buffer;
+    var i = s.position;
+    while (i < end) {
+      if (i + 8 <= end) {
+        var w = Swar.read(buf, i);
+        if ((Swar.eq(w, '\n') | w & Swar.HIGH_BITS) == 0) {
+          i += 8;
+          column += 8;
+          continue;
+        }
+      }
+      var b = buf[i++];
+      if (b == '\n') {
+        line++;
+        column = 0;
+      } else if ((b & 0xC0) != 0x80) {
+        // the continuation bytes of UTF-8 are not counted
+        column++;
+      }
+    }
+    s.position = end;
+    cursor = next;
+    return true;
+  }
+
+  private boolean skipWhitespace() throws IOException {
+    if (index != null) {
+      return skipToNextStructural();
+    }
+    var s = source;
+    do {
+      var buf = s.buffer;
+      var limit = s.limit;
+      for (; s.position < limit; s.position++) {
+        switch (buf[s.position]) {
+          case ' ', '\t', '\r' -> column++;
+          case '\n' -> {
+            line++;
+            column = 0;
+          }
+          default -> {
+            return true;
+          }
+        }
+      }
+    } while (s.fill());
+    return false;
+  }
+
+  private boolean skipToNextStructural() {
+    var s = source;
+    cursor = index.next(cursor, s.position);
+    var target = cursor < index.size() ? index.get(cursor) : s.limit;
+    var buf = s.buffer;
+    // the bytes up to the next structural character are whitespaces in a valid input
+    for (; s.position + 8 <= target; s.position += 8) {
+      var w = Swar.read(buf, s.position);
+      var newlines = Swar.eq(w, '\n');
+      if ((newlines | Swar.eq(w, ' ') | Swar.eq(w, '\t') | Swar.eq(w, '\r')) != Swar.HIGH_BITS) {
+        break;
+      }
+      if (newlines == 0) {
+        column += 8;
+      } else {
+        line += Long.bitCount(newlines);
+        column = 7 - ((63 - Long.numberOfLeadingZeros(newlines)) >>> 3);
+      }
+    }
+    for (; s.position < target; s.position++) {
+      switch (buf[s.position]) {
+        case ' ', '\t', '\r' -> column++;
+        case '\n' -> {
+          line++;
+          column = 0;
+        }
+        default -> {
+          return true;
+        }
+      }
+    }
+    return s.position < s.limit;
+  }
+
+  private Kind nextString() throws IOException {
+    var s = source;
+    var count = 0;
+    while (true) {
+      // the run is not consumed until its end is found, so that refilling keeps it within the window
+      var n = scanRun();
+      var start = s.position;
+      var end = start + n;
+      var stop = end < s.limit ? s.buffer[end] : -1;
+      if (count == 0 && stop == '"' && Swar.isAscii(s.buffer, start, end)) {
+        // fast path: a string consisting only of ASCII characters can be built at once
+        s.position = end + 1;
+        column += n + 1;
+        textOffset = start;
+        textLength = n;
+        return Kind.STRING;
+      }
+      count = decodeRun(n, count);
+      if (stop == -1) {
+        throw ParserException.unexpectedEOF(line, column + 1);
+      }
+      var c = nextChar();
+      if (c == '"') {
+        textOffset = -1;
+        textLength = count;
+        return Kind.STRING;
       } else if (c == '\\') {
-        escaped = true;
-      } else if (Characters.isControl(c)) {
+        c = nextChar();
+        chars = ensureCapacity(chars, count + 1);
+        chars[count++] = switch (c) {
+          case '"', '\\', '/' -> (char) c;
+          case 'b' -> '\b';
+          case 'f' -> '\f';
+          case 'n' -> '\n';
+          case 'r' -> '\r';
+          case 't' -> '\t';
+          case 'u' -> (char) (nextHex() << 12 | nextHex() << 8 | nextHex() << 4 | nextHex());
+          default -> throw ParserException.unexpectedCharacter(c, line, column);
+        };
+      } else {
         throw ParserException.unexpectedCharacter(c, line, column);
+      }
+    }
+  }
+
+  /**
+   * Returns the length of the run of bytes which can be a part of a string as is, i.e. the bytes other than
+   * quotation marks, backslashes and control characters, starting at the current position.
+   */
+  private int scanRun() throws IOException {
+    var s = source;
+    var n = 0;
+    while (true) {
+      var buf = s.buffer;
+      var start = s.position;
+      var limit = s.limit;
+      var i = start + n;
+      for (; i + 8 <= limit; i += 8) {
+        var w = Swar.read(buf, i);
+        var m = Swar.eq(w, '"') | Swar.eq(w, '\\') | Swar.lt(w, 0x20);
+        if (m != 0) {
+          return i + (Long.numberOfTrailingZeros(m) >>> 3) - start;
+        }
+      }
+      for (; i < limit; i++) {
+        var b = buf[i];
+        if (0 <= b && (b < 0x20 || b == '"' || b == '\\')) {
+          return i - start;
+        }
+      }
+      n = i - start;
+      if (!s.fill()) {
+        return n;
+      }
+    }
+  }
+
+  /**
+   * Decodes the run of {@code n} bytes starting at the current position as UTF-8, appending the characters to
+   * {@link #chars} from the index {@code count}.
+   *
+   * @return the number of characters in {@link #chars} after decoding.
+   */
+  private int decodeRun(int n, int count) {
+    var s = source;
+    var buf = s.buffer;
+    var i = s.position;
+    var end = i + n;
+    // a character takes at least as many bytes as UTF-16 code units
+    var dst = chars = ensureCapacity(chars, count + n);
+    var j = count;
+    var codePoints = 0;
+    while (i < end) {
+      if (i + 8 <= end && (Swar.read(buf, i) & Swar.HIGH_BITS) == 0) {
+        for (var k = 0; k < 8; k++) {
+          dst[j++] = (char) buf[i++];
+        }
+        codePoints += 8;
+        continue;
+      }
+      var b1 = Byte.toUnsignedInt(buf[i]);
+      var length = lengthOfChar(b1);
+      if (length == 1) {
+        dst[j++] = (char) b1;
+        i++;
       } else {
-        str.appendCodePoint(c);
+        var cp = decodeChar(buf, i, end, b1, length);
+        if (cp == -1) {
+          if (strictUtf8) {
+            throw ParserException.invalidUtf8(b1, line, column + codePoints + 1);
+          }
+          // only the leading byte is replaced, the following bytes are decoded again
+          dst[j++] = (char) REPLACEMENT_CHAR;
+          i++;
+        } else {
+          j += Character.toChars(cp, dst, j);
+          i += length;
+        }
       }
+      codePoints++;
     }
-    throw ParserException.unexpectedEOF(line, column);
+    s.position = end;
+    column += codePoints;
+    return j;
+  }
+
+  /**
+   * Decodes the multibyte character whose leading byte is at the given index.
+   *
+   * @return the code point, or {@code -1} if the byte sequence is invalid.
+   */
+  private int decodeChar(byte[] buf, int i, int end, int b1, int length) {
+    if (length == -1 || end < i + length) {
+      return -1;
+    }
+    for (var k = 1; k < length; k++) {
+      if ((buf[i + k] & 0xC0) != 0x80) {
+        return -1;
+      }
+    }
+    if (strictUtf8 && !isWellFormed(b1, buf[i + 1] & 0xFF)) {
+      return -1;
+    }
+    var cp = switch (length) {
+      // U+0080 to U+07FF
+      case 2 -> ((b1 & 0x1F) << 6) | (buf[i + 1] & 0x3F);
+      // U+0800 to U+FFFF
+      case 3 -> ((b1 & 0x0F) << 12) | ((buf[i + 1] & 0x3F) << 6) | (buf[i + 2] & 0x3F);
+      // U+10000 to U+10FFFF
+      default -> ((b1 & 0x07) << 18) | ((buf[i + 1] & 0x3F) << 12) | ((buf[i + 2] & 0x3F) << 6) | (buf[i + 3] & 0x3F);
+    };
+    return cp <= Character.MAX_CODE_POINT ? cp : -1;
   }
 
   private int nextHex() throws IOException {
@@ -114,79 +650,136 @@ final class Lexer implements Iterator<Token> {
     return h;
   }
 
-  private Token nextKeyword(int c1) throws IOException {
-    var startColumn = column;
-    var str = new StringBuilder(5);
-    var c = c1;
-    do {
-      str.appendCodePoint(c);
-    } while (Characters.isAlpha(c = nextChar()));
-    backChar(c);
-    var keyword = str.toString();
-    return switch (keyword) {
-      case "true" -> new Token.True(line, startColumn);
-      case "false" -> new Token.False(line, startColumn);
-      case "null" -> new Token.Null(line, startColumn);
-      default -> throw ParserException.unknownToken(keyword, line, startColumn);
-    };
+  private Kind nextKeyword() throws IOException {
+    // the keyword is scanned without being consumed, and compared with the bytes in the window
+    var s = source;
+    s.position--;
+    var n = 1;
+    while (Characters.isAlpha(byteAt(n))) {
+      n++;
+    }
+    var from = s.position;
+    s.position += n;
+    column += n - 1;
+    if (matches(s.buffer, from, n, TRUE)) {
+      return Kind.TRUE;
+    } else if (matches(s.buffer, from, n, FALSE)) {
+      return Kind.FALSE;
+    } else if (matches(s.buffer, from, n, NULL)) {
+      return Kind.NULL;
+    }
+    var keyword = new String(s.buffer, from, n, StandardCharsets.ISO_8859_1);
+    throw ParserException.unknownToken(keyword, line, tokenColumn);
   }
 
-  private Token nextNumber(int c1) throws IOException {
-    @SuppressWarnings("checkstyle:VariableDeclarationUsageDistance")
-    var startColumn = column;
-    var str = new StringBuilder();
-    var c = c1;
-    do {
-      str.appendCodePoint(c);
-    } while (Characters.isDigit(c = nextChar()));
-    if (c1 == '-' && str.length() == 1) {
-      throw ParserException.unexpectedCharacter(c, line, column);
+  private Kind nextNumber() throws IOException {
+    // the number is scanned without being consumed so that its text stays in the window for the rare fallbacks
+    var s = source;
+    s.position--;
+    column--;
+    var negative = s.buffer[s.position] == '-';
+    var n = negative ? 1 : 0;
+    // up to 19 significant digits as an unsigned value, which cannot overflow
+    var mantissa = 0L;
+    var digits = 0;
+    var truncated = false;
+    var exponent = 0;
+    var start = n;
+    int c;
+    for (; Characters.isDigit(c = byteAt(n)); n++) {
+      if (digits < 19) {
+        mantissa = mantissa * 10 + (c - '0');
+        digits += mantissa == 0 ? 0 : 1;
+      } else {
+        truncated = true;
+        exponent++;
+      }
+    }
+    if (n == start) {
+      throw unexpectedCharAt(n);
     }
     var integral = true;
     if (c == '.') {
-      str.append('.');
-      var cnt = 0;
-      while (Characters.isDigit(c = nextChar())) {
-        str.appendCodePoint(c);
-        cnt++;
+      start = ++n;
+      for (; Characters.isDigit(c = byteAt(n)); n++) {
+        if (digits < 19) {
+          mantissa = mantissa * 10 + (c - '0');
+          digits += mantissa == 0 ? 0 : 1;
+          exponent--;
+        } else {
+          truncated = true;
+        }
       }
-      if (cnt == 0) {
-        throw ParserException.unexpectedCharacter(c, line, column);
+      if (n == start) {
+        throw unexpectedCharAt(n);
       }
       integral = false;
     }
     if (c == 'e' || c == 'E') {
-      str.append('e');
-      c = nextChar();
+      c = byteAt(++n);
+      final var negativeExponent = c == '-';
       if (c == '+' || c == '-') {
-        str.appendCodePoint(c);
-        c = nextChar();
+        n++;
       }
-      var cnt = 0;
-      for (; Characters.isDigit(c); c = nextChar(), cnt++) {
-        str.appendCodePoint(c);
+      start = n;
+      var e = 0;
+      for (; Characters.isDigit(c = byteAt(n)); n++) {
+        // far beyond the range of doubles, but cannot overflow
+        if (e < 100_000) {
+          e = e * 10 + (c - '0');
+        }
       }
-      if (cnt == 0) {
-        throw ParserException.unexpectedCharacter(c, line, column);
+      if (n == start) {
+        throw unexpectedCharAt(n);
       }
+      exponent += negativeExponent ? -e : e;
       integral = false;
     }
-    backChar(c);
-    return integral ? new Token.Integer(line, startColumn, Long.parseLong(str.toString()))
-        : new Token.Float(line, startColumn, Double.parseDouble(str.toString()));
+    // the text is built on demand while it stays in the window, i.e. until the next token is read
+    textOffset = s.position;
+    textLength = n;
+    s.position += n;
+    column += n;
+    if (integral) {
+      if (!truncated && (negative ? Long.compareUnsigned(mantissa, Long.MIN_VALUE) <= 0 : 0 <= mantissa)) {
+        longValue = negative ? -mantissa : mantissa;
+        return Kind.INTEGER;
+      }
+      return Kind.BIG_INTEGER;
+    }
+    if (exactDecimals) {
+      return Kind.DECIMAL;
+    }
+    // NaN if the number cannot be converted quickly, which is converted on demand
+    var value = truncated ? Double.NaN : Doubles.toDouble(mantissa, exponent);
+    doubleValue = negative ? -value : value;
+    return Kind.FLOAT;
+  }
+
+  /**
+   * Returns the byte at the given offset from the current position without consuming it, or {@code -1} if the input
+   * ends before it.
+   */
+  private int byteAt(int offset) throws IOException {
+    var s = source;
+    return s.ensure(offset + 1) ? Byte.toUnsignedInt(s.buffer[s.position + offset]) : -1;
+  }
+
+  private ParserException unexpectedCharAt(int offset) throws IOException {
+    source.position += offset;
+    column += offset;
+    return unexpectedNextChar();
+  }
+
+  private ParserException unexpectedNextChar() throws IOException {
+    var c = nextChar();
+    return ParserException.unexpectedCharacter(c, line, column);
   }
 
   private int nextChar() throws IOException {
-    int c;
-    if (bc == -1) {
-      c = readChar();
-    } else {
-      c = bc;
-      bc = -1;
-    }
+    var c = readChar();
     if (c == '\n') {
       line++;
-      prevColumn = column;
       column = 0;
     } else {
       column++;
@@ -194,54 +787,68 @@ final class Lexer implements Iterator<Token> {
     return c;
   }
 
-  private void backChar(int c) {
-    bc = c;
-    if (c == '\n') {
-      line--;
-      column = prevColumn;
-    } else {
-      column--;
-    }
-  }
-
   private int readChar() throws IOException {
-    var b1 = source.read();
-    if (b1 == -1) {
+    var s = source;
+    if (s.position == s.limit && !s.fill()) {
       return -1;
     }
+    var b1 = Byte.toUnsignedInt(s.buffer[s.position]);
     var length = lengthOfChar(b1);
     if (length == 1) {
       // U+0000 to U+007F
+      s.position++;
       return b1;
     }
-    if (length == -1) {
+    if (length == -1 || !isContinued(length)) {
+      // only the leading byte is replaced, the following bytes are read again
+      s.position++;
       return REPLACEMENT_CHAR;
     }
-    var b2 = source.read();
-    if ((b2 & 0xC0) != 0x80) {
-      source.back(b2);
-      return REPLACEMENT_CHAR;
-    }
-    if (length == 2) {
+    var buf = s.buffer;
+    var p = s.position;
+    s.position += length;
+    return switch (length) {
       // U+0080 to U+07FF
-      return ((b1 & 0x1F) << 6) | (b2 & 0x3F);
-    }
-    var b3 = source.read();
-    if ((b3 & 0xC0) != 0x80) {
-      source.back(b2, b3);
-      return REPLACEMENT_CHAR;
-    }
-    if (length == 3) {
+      case 2 -> ((b1 & 0x1F) << 6) | (buf[p + 1] & 0x3F);
       // U+0800 to U+FFFF
-      return ((b1 & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
-    }
-    var b4 = source.read();
-    if ((b4 & 0xC0) != 0x80) {
-      source.back(b2, b3, b4);
-      return REPLACEMENT_CHAR;
+      case 3 -> ((b1 & 0x0F) << 12) | ((buf[p + 1] & 0x3F) << 6) | (buf[p + 2] & 0x3F);
+      // U+10000 to U+10FFFF
+      default -> ((b1 & 0x07) << 18) | ((buf[p + 1] & 0x3F) << 12) | ((buf[p + 2] & 0x3F) << 6) | (buf[p + 3] & 0x3F);
+    };
+  }
+
+  private boolean isContinued(int length) throws IOException {
+    var s = source;
+    s.ensure(length);
+    var available = Math.min(length, s.limit - s.position);
+    for (var i = 1; i < available; i++) {
+      if ((s.buffer[s.position + i] & 0xC0) != 0x80) {
+        return false;
+      }
     }
-    // U+10000 to U+10FFFF
-    return ((b1 & 0x07) << 18) | ((b2 & 0x3F) << 12) | ((b3 & 0x3F) << 6) | (b4 & 0x3F);
+    return available == length;
+  }
+
+  /**
+   * Returns {@code true} if the given leading and second bytes begin a well-formed sequence, which is neither an
+   * overlong encoding, a surrogate, nor beyond U+10FFFF (RFC 3629).
+   */
+  private static boolean isWellFormed(int b1, int b2) {
+    return switch (b1) {
+      case 0xE0 -> 0xA0 <= b2;
+      case 0xED -> b2 <= 0x9F;
+      case 0xF0 -> 0x90 <= b2;
+      case 0xF4 -> b2 <= 0x8F;
+      default -> 0xC2 <= b1 && b1 <= 0xF4;
+    };
+  }
+
+  private static boolean matches(byte[] buf, int from, int length, byte[] keyword) {
+    return length == keyword.length && Arrays.equals(buf, from, from + length, keyword, 0, length);
+  }
+
+  private static char[] ensureCapacity(char[] chars, int capacity) {
+    return capacity <= chars.length ? chars : Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
   }
 
   private static int lengthOfChar(int b1) {
@@ -257,4 +864,33 @@ final class Lexer implements Iterator<Token> {
       return -1;
     }
   }
+
+  private final class TextView implements CharSequence {
+
+    @Override
+    public int length() {
+      return text != null ? text.length() : textLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (text != null) {
+        return text.charAt(index);
+      }
+      Objects.checkIndex(index, textLength);
+      return textOffset == -1 ? chars[index] : (char) (source.buffer[textOffset + index] & 0xFF);
+    }
+
+    @Override
+    @NonNull
+    public CharSequence subSequence(int start, int end) {
+      return text().subSequence(start, end);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+      return text();
+    }
+  }
 }
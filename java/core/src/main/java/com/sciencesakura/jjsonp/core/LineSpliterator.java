@@ -0,0 +1,145 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator which parses each line of a memory segment as a JSON text (JSON Lines).
+ *
+ * <p>The segment is split at the newlines near the middle, so that the chunks can be parsed in parallel. Since the
+ * lines are parsed independently of each other, the line numbers of errors are corrected by counting the newlines
+ * before the line only when an error occurs.</p>
+ */
+final class LineSpliterator implements Spliterator<JsonValue> {
+
+  // the chunks smaller than this are not split any further
+  private static final long MIN_SPLIT_SIZE = 1 << 16;
+
+  private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private final MemorySegment segment;
+
+  private final ParserOptions options;
+
+  private final long end;
+
+  private long position;
+
+  private byte[] line = new byte[256];
+
+  LineSpliterator(MemorySegment segment, ParserOptions options) {
+    // each line is lexed separately
+    this(segment, options.withNameCacheShared(), 0, segment.byteSize());
+  }
+
+  private LineSpliterator(MemorySegment segment, ParserOptions options, long position, long end) {
+    this.segment = segment;
+    this.options = options;
+    this.position = position;
+    this.end = end;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super JsonValue> action) {
+    while (position < end) {
+      var start = position;
+      var newline = indexOfNewline(start, end);
+      position = Math.min(newline + 1, end);
+      var value = parseLine(start, newline);
+      if (value != null) {
+        action.accept(value);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Spliterator<JsonValue> trySplit() {
+    var size = end - position;
+    if (size < MIN_SPLIT_SIZE) {
+      return null;
+    }
+    var newline = indexOfNewline(position + size / 2, end);
+    if (end - 1 <= newline) {
+      return null;
+    }
+    var prefix = new LineSpliterator(segment, options, position, newline + 1);
+    position = newline + 1;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return end - position;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL | IMMUTABLE;
+  }
+
+  /**
+   * Parses the line in the given range, or returns {@code null} if it is blank.
+   */
+  private JsonValue parseLine(long start, long end) {
+    var length = Math.toIntExact(end - start);
+    if (line.length < length) {
+      line = new byte[Math.max(length, line.length * 2)];
+    }
+    MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, start, line, 0, length);
+    var lexer = new Lexer(new ArraySource(line, 0, length), options);
+    try {
+      var reader = new JsonReader(lexer, options);
+      if (!reader.hasNext()) {
+        return null;
+      }
+      var value = new Parser(reader, options).parseValue(reader.next());
+      var kind = lexer.advance();
+      if (kind != null) {
+        throw ParserException.unexpectedToken(lexer.toToken(kind));
+      }
+      return value;
+    } catch (ParserException e) {
+      throw e.shift(countNewlines(0, start), 0);
+    }
+  }
+
+  /**
+   * Returns the index of the first newline in the given range, or {@code to} if there is none.
+   */
+  private long indexOfNewline(long from, long to) {
+    var i = from;
+    for (; i + 8 <= to; i += 8) {
+      var mask = Swar.eq(segment.get(WORD, i), '\n');
+      if (mask != 0) {
+        return i + (Long.numberOfTrailingZeros(mask) >>> 3);
+      }
+    }
+    for (; i < to; i++) {
+      if (segment.get(ValueLayout.JAVA_BYTE, i) == '\n') {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  private long countNewlines(long from, long to) {
+    var count = 0L;
+    var i = from;
+    for (; i + 8 <= to; i += 8) {
+      count += Long.bitCount(Swar.eq(segment.get(WORD, i), '\n'));
+    }
+    for (; i < to; i++) {
+      if (segment.get(ValueLayout.JAVA_BYTE, i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+}
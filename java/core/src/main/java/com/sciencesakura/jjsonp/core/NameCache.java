@@ -0,0 +1,121 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.nio.charset.StandardCharsets;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A cache of the names of object members, which makes the repeated names share one {@link String}.
+ *
+ * <p>A name is looked up by hashing its bytes in the input, or its characters if it contains escapes or non-ASCII
+ * characters, so a cached name is neither decoded nor allocated again. The cache is a fixed-size table in which each
+ * name has one slot, determined by its hash, and a name replaces the one in its slot; so the memory is bounded, and
+ * the names repeated most often tend to stay. Names longer than 64 characters are not cached.</p>
+ *
+ * <p>By default, each parser has its own cache. A cache given by {@link ParserOptions#withNameCache(NameCache)} may
+ * be shared by parsers in any threads: the slots are read and written without locks, and since strings are
+ * immutable, a thread sees either a complete name or a miss.</p>
+ */
+public final class NameCache {
+
+  // the capacity of the cache which each parser has by default
+  static final int DEFAULT_CAPACITY = 256;
+
+  private static final int MAX_LENGTH = 64;
+
+  private final String[] names;
+
+  private final int mask;
+
+  private NameCache(int capacity) {
+    this.names = capacity == 0 ? null : new String[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Returns a new cache which holds up to the given number of names.
+   *
+   * @param capacity the maximum number of names, which is rounded up to a power of two; 0 disables caching.
+   * @return the cache.
+   * @throws IllegalArgumentException if {@code capacity} is negative or greater than 2<sup>30</sup>.
+   */
+  @NonNull
+  public static NameCache of(int capacity) {
+    if (capacity < 0 || 1 << 30 < capacity) {
+      throw new IllegalArgumentException("capacity must be between 0 and 2^30: " + capacity);
+    }
+    return new NameCache(capacity <= 1 ? capacity : Integer.highestOneBit(capacity - 1) << 1);
+  }
+
+  /**
+   * Returns the name consisting of the given ASCII bytes.
+   */
+  String get(byte[] bytes, int offset, int length) {
+    if (names == null || MAX_LENGTH < length) {
+      return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    }
+    // the same hash as String.hashCode, which the strings cache
+    var hash = 0;
+    for (var i = 0; i < length; i++) {
+      hash = 31 * hash + bytes[offset + i];
+    }
+    var slot = slot(hash);
+    var name = names[slot];
+    if (name != null && name.hashCode() == hash && matches(name, bytes, offset, length)) {
+      return name;
+    }
+    name = new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+    names[slot] = name;
+    return name;
+  }
+
+  /**
+   * Returns the name consisting of the given characters.
+   */
+  String get(char[] chars, int length) {
+    if (names == null || MAX_LENGTH < length) {
+      return new String(chars, 0, length);
+    }
+    var hash = 0;
+    for (var i = 0; i < length; i++) {
+      hash = 31 * hash + chars[i];
+    }
+    var slot = slot(hash);
+    var name = names[slot];
+    if (name != null && name.hashCode() == hash && matches(name, chars, length)) {
+      return name;
+    }
+    name = new String(chars, 0, length);
+    names[slot] = name;
+    return name;
+  }
+
+  private int slot(int hash) {
+    return (hash ^ hash >>> 16) & mask;
+  }
+
+  private static boolean matches(String name, byte[] bytes, int offset, int length) {
+    if (name.length() != length) {
+      return false;
+    }
+    for (var i = 0; i < length; i++) {
+      if (name.charAt(i) != bytes[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matches(String name, char[] chars, int length) {
+    if (name.length() != length) {
+      return false;
+    }
+    for (var i = 0; i < length; i++) {
+      if (name.charAt(i) != chars[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,283 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A parser which parses a large array or object in a memory segment in parallel.
+ *
+ * <p>The segment is divided into ranges, and the elements or members of the outermost value are parsed in parallel
+ * from the first comma at depth 1 in each range. To find the commas, each range is scanned twice in parallel: first
+ * to count its unescaped quotes and its brackets both inside and outside strings, since whether the range starts
+ * inside a string is known only from the parity of the quotes before it; and then, once the depth at the start of
+ * each range is known, to find the first comma at depth 1 within the range. The parts parsed in parallel are joined
+ * into one value.</p>
+ *
+ * <p>Any other input, e.g. a small one or a scalar, is parsed sequentially. If the parts cannot be parsed or joined,
+ * e.g. because of a syntax error, the whole input is parsed again sequentially, so that the result, including the
+ * exception and its position, is the same as that of the sequential parser.</p>
+ */
+final class ParallelParser {
+
+  // the ranges smaller than this are not parsed in parallel
+  private static final long MIN_RANGE_SIZE = 1 << 20;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  // '{' and '}' as well as '[' and ']' after setting the 0x20 bit of each byte
+  private static final long CASE_BITS = 0x2020202020202020L;
+
+  private final MemorySegment segment;
+
+  private final ParserOptions options;
+
+  private final long minRangeSize;
+
+  ParallelParser(MemorySegment segment, ParserOptions options) {
+    this(segment, options, MIN_RANGE_SIZE);
+  }
+
+  ParallelParser(MemorySegment segment, ParserOptions options, long minRangeSize) {
+    this.segment = segment;
+    // the parts are lexed separately, possibly in different threads
+    this.options = options.withNameCacheShared();
+    this.minRangeSize = minRangeSize;
+  }
+
+  Optional<JsonValue> parse() {
+    var size = segment.byteSize();
+    var start = 0L;
+    while (start < size && Characters.isWhitespace(segment.get(ValueLayout.JAVA_BYTE, start))) {
+      start++;
+    }
+    var count = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4L, (size - start) / minRangeSize);
+    if (start == size || count < 2) {
+      return parseSequentially();
+    }
+    var first = segment.get(ValueLayout.JAVA_BYTE, start);
+    if (first != '[' && first != '{') {
+      return parseSequentially();
+    }
+    var bounds = new long[(int) count + 1];
+    for (var i = 0; i <= count; i++) {
+      bounds[i] = start + (size - start) * i / count;
+    }
+    try {
+      var value = parseParts(first == '[' ? JsonReader.Event.START_ARRAY : JsonReader.Event.START_OBJECT, bounds);
+      if (value != null) {
+        return Optional.of(value);
+      }
+    } catch (ParserException e) {
+      // reported by the sequential parser at the right position
+    }
+    return parseSequentially();
+  }
+
+  private Optional<JsonValue> parseSequentially() {
+    return new Parser(new JsonReader(new Lexer(new SegmentSource(segment, BUFFER_SIZE), options), options), options).parse();
+  }
+
+  /**
+   * Parses the outermost value in parallel, or returns {@code null} if it cannot be split into the given ranges.
+   */
+  private JsonValue parseParts(JsonReader.Event container, long[] bounds) {
+    var count = bounds.length - 1;
+    var summaries = IntStream.range(0, count).parallel()
+        .mapToObj(i -> summarize(bounds[i], bounds[i + 1]))
+        .toList();
+    var inString = new boolean[count];
+    var depths = new long[count];
+    for (var i = 1; i < count; i++) {
+      var previous = summaries.get(i - 1);
+      inString[i] = inString[i - 1] ^ ((previous.quotes() & 1) != 0);
+      depths[i] = depths[i - 1] + (inString[i - 1] ? previous.depthInString() : previous.depth());
+    }
+    var starts = IntStream.range(0, count).parallel()
+        .mapToLong(i -> i == 0 ? bounds[0] : indexOfSeparator(bounds[i], bounds[i + 1], inString[i], depths[i]))
+        .filter(start -> start != -1)
+        .toArray();
+    if (starts.length < 2) {
+      return null;
+    }
+    var parts = IntStream.range(0, starts.length).parallel()
+        .mapToObj(i -> parsePart(container, starts[i], i + 1 < starts.length ? starts[i + 1] : segment.byteSize(), i))
+        .toList();
+    for (var i = 0; i < parts.size(); i++) {
+      if (parts.get(i).ended != (i == parts.size() - 1)) {
+        return null;
+      }
+    }
+    if (container == JsonReader.Event.START_ARRAY) {
+      var elements = new ArrayList<JsonValue>();
+      for (var part : parts) {
+        elements.addAll(part.elements);
+      }
+      return new JsonArray(elements);
+    }
+    var members = new LinkedHashMap<String, JsonValue>();
+    for (var part : parts) {
+      members.putAll(part.members);
+    }
+    return new JsonObject(members);
+  }
+
+  private Part parsePart(JsonReader.Event container, long from, long to, int index) {
+    var source = new SegmentSource(segment.asSlice(from, to - from), BUFFER_SIZE);
+    var reader = new JsonReader(new Lexer(source, options), options);
+    reader.readPart(container, index != 0);
+    if (index == 0) {
+      reader.next();
+    }
+    var parser = new Parser(reader, options);
+    var part = new Part(container);
+    String name = null;
+    while (reader.hasNext()) {
+      var event = reader.next();
+      switch (event) {
+        case END_ARRAY, END_OBJECT -> {
+          // the end of the outermost value
+        }
+        case NAME -> name = reader.getString();
+        default -> {
+          var value = parser.parseValue(event);
+          if (part.members == null) {
+            part.elements.add(value);
+          } else {
+            part.members.put(name, value);
+          }
+        }
+      }
+    }
+    part.ended = reader.currentDepth() == 0;
+    return part;
+  }
+
+  /**
+   * Counts the unescaped quotes and the depth changes in the given range, for either case that the range starts
+   * outside or inside a string.
+   */
+  private Summary summarize(long from, long to) {
+    var escaped = isEscaped(from);
+    // the case that the range starts inside a string is the other way round
+    var inString = false;
+    var quotes = 0L;
+    var depth = 0L;
+    var depthInString = 0L;
+    for (var word = from; word < to; word += 8) {
+      var end = Math.min(word + 8, to);
+      if (end - word == 8 && !escaped && interesting(segment.get(WORD, word)) == 0) {
+        continue;
+      }
+      for (var i = word; i < end; i++) {
+        var b = segment.get(ValueLayout.JAVA_BYTE, i);
+        if (escaped) {
+          escaped = false;
+        } else if (b == '\\') {
+          escaped = true;
+        } else if (b == '"') {
+          inString = !inString;
+          quotes++;
+        } else if (b == '[' || b == '{') {
+          if (inString) {
+            depthInString++;
+          } else {
+            depth++;
+          }
+        } else if (b == ']' || b == '}') {
+          if (inString) {
+            depthInString--;
+          } else {
+            depth--;
+          }
+        }
+      }
+    }
+    return new Summary(quotes, depth, depthInString);
+  }
+
+  /**
+   * Returns the index of the first comma at depth 1 in the given range, or -1 if there is none.
+   */
+  private long indexOfSeparator(long from, long to, boolean inString, long depth) {
+    var escaped = isEscaped(from);
+    for (var word = from; word < to; word += 8) {
+      var end = Math.min(word + 8, to);
+      if (end - word == 8 && !escaped && interesting(segment.get(WORD, word)) == 0) {
+        continue;
+      }
+      for (var i = word; i < end; i++) {
+        var b = segment.get(ValueLayout.JAVA_BYTE, i);
+        if (escaped) {
+          escaped = false;
+        } else if (b == '\\') {
+          escaped = true;
+        } else if (b == '"') {
+          inString = !inString;
+        } else if (!inString) {
+          if (b == '[' || b == '{') {
+            depth++;
+          } else if (b == ']' || b == '}') {
+            depth--;
+          } else if (b == ',' && depth == 1) {
+            return i;
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns {@code true} if the byte at the given index follows an odd number of backslashes.
+   */
+  private boolean isEscaped(long index) {
+    var escaped = false;
+    for (var i = index - 1; 0 <= i && segment.get(ValueLayout.JAVA_BYTE, i) == '\\'; i--) {
+      escaped = !escaped;
+    }
+    return escaped;
+  }
+
+  /**
+   * Returns the mask of quotes, backslashes, brackets and commas.
+   */
+  private static long interesting(long word) {
+    var folded = word | CASE_BITS;
+    return Swar.eq(word, '"') | Swar.eq(word, '\\') | Swar.eq(word, ',')
+        | Swar.eq(folded, '{') | Swar.eq(folded, '}');
+  }
+
+  /**
+   * The unescaped quotes and the depth change outside strings in a range, for the cases that the range starts outside
+   * and inside a string.
+   */
+  private record Summary(long quotes, long depth, long depthInString) {
+  }
+
+  private static final class Part {
+
+    final List<JsonValue> elements;
+
+    // null for an array
+    final LinkedHashMap<String, JsonValue> members;
+
+    boolean ended;
+
+    Part(JsonReader.Event container) {
+      var array = container == JsonReader.Event.START_ARRAY;
+      this.elements = array ? new ArrayList<>() : null;
+      this.members = array ? null : new LinkedHashMap<>();
+    }
+  }
+}
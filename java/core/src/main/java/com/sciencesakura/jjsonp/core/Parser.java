@@ -3,130 +3,279 @@
 package com.sciencesakura.jjsonp.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Optional;
 
 final class Parser {
 
-  private final Iterator<? extends Token> tokens;
+  private static final int MAX_INTERNED = 1 << 16;
+
+  private final JsonReader reader;
+
+  // the arrays and objects being parsed, which are reused at each depth
+  private Frame[] frames = new Frame[16];
+
+  private int depth;
+
+  private boolean deduplication;
+
+  // the arrays, objects and strings parsed so far in the current value, mapped to themselves, if identical values are
+  // to share one instance
+  private HashMap<JsonValue, JsonValue> interned;
+
+  Parser(JsonReader reader, ParserOptions options) {
+    this.reader = reader;
+    this.deduplication = options.deduplication();
+  }
 
   Parser(Iterator<? extends Token> tokens) {
-    this.tokens = tokens;
+    this(new JsonReader(new TokenIterator(tokens), ParserOptions.DEFAULT), ParserOptions.DEFAULT);
   }
 
   Optional<JsonValue> parse() {
-    return tokens.hasNext() ? Optional.of(parseValue(tokens.next())) : Optional.empty();
+    return reader.hasNext() ? Optional.of(parseValue(reader.next())) : Optional.empty();
   }
 
-  private JsonValue parseValue(Token token) {
-    return switch (token) {
-      case Token.True _ -> JsonBool.TRUE;
-      case Token.False _ -> JsonBool.FALSE;
-      case Token.Null _ -> JsonNull.INSTANCE;
-      case Token.String t -> new JsonString(t.value());
-      case Token.Integer t -> new JsonInteger(t.value());
-      case Token.Float t -> new JsonFloat(t.value());
-      case Token.LeftBracket _ -> parseArray();
-      case Token.LeftCurly _ -> parseObject();
-      default -> throw ParserException.unexpectedToken(token);
-    };
+  /**
+   * Parses the value starting with the given event, which has just been read from the reader.
+   */
+  JsonValue parseValue(JsonReader.Event first) {
+    depth = 0;
+    for (var event = first; ; event = reader.next()) {
+      var value = add(event);
+      if (value != null) {
+        return value;
+      }
+    }
   }
 
-  private JsonArray parseArray() {
-    enum Status {
-      INIT,
-      AFTER_VALUE,
-      AFTER_COMMA,
-    }
-
-    var array = new ArrayList<JsonValue>();
-    var status = Status.INIT;
-    while (tokens.hasNext()) {
-      var token = tokens.next();
-      switch (status) {
-        case INIT -> {
-          if (token instanceof Token.RightBracket) {
-            return JsonArray.EMPTY;
-          }
-          array.add(parseValue(token));
-          status = Status.AFTER_VALUE;
-        }
-        case AFTER_VALUE -> {
-          if (token instanceof Token.RightBracket) {
-            return new JsonArray(array);
-          }
-          if (token instanceof Token.Comma) {
-            status = Status.AFTER_COMMA;
-            break;
-          }
-          throw ParserException.unexpectedToken(token);
-        }
-        case AFTER_COMMA -> {
-          array.add(parseValue(token));
-          status = Status.AFTER_VALUE;
-        }
+  /**
+   * Adds the given event, which has just been read from the reader, to the value being parsed, and returns the value
+   * once it is complete, or {@code null} otherwise. This allows the events to be added one by one as they arrive.
+   */
+  JsonValue add(JsonReader.Event event) {
+    JsonValue value;
+    boolean textual;
+    switch (event) {
+      case START_ARRAY -> {
+        begin();
+        frame(depth).textual = false;
+        frame(depth++).members = null;
+        return null;
+      }
+      case START_OBJECT -> {
+        begin();
+        frame(depth).textual = false;
+        frame(depth++).members = new LinkedHashMap<>();
+        return null;
+      }
+      case NAME -> {
+        frames[depth - 1].name = reader.getString();
+        return null;
+      }
+      case END_ARRAY -> {
+        var elements = frames[--depth].elements;
+        value = elements.isEmpty() ? JsonArray.EMPTY : new JsonArray(elements);
+        frames[depth].largest = Math.max(frames[depth].largest, elements.size());
+        elements.clear();
+        textual = frames[depth].textual;
+      }
+      case END_OBJECT -> {
+        var members = frames[--depth].members;
+        value = members.isEmpty() ? JsonObject.EMPTY : new JsonObject(members);
+        textual = frames[depth].textual;
+      }
+      default -> {
+        value = reader.scalarValue();
+        textual = value instanceof JsonDecimal || value instanceof JsonBigInteger;
+      }
+    }
+    if (depth == 0) {
+      interned = null;
+      return value;
+    }
+    var frame = frames[depth - 1];
+    if (interned != null) {
+      if (textual) {
+        frame.textual = true;
+      } else {
+        value = intern(value);
       }
     }
-    throw ParserException.unexpectedEOF();
+    if (frame.members == null) {
+      frame.elements.add(value);
+    } else {
+      frame.members.put(frame.name, value);
+    }
+    return null;
+  }
+
+  /**
+   * Drops the values left by a parse which has failed, for reusing this parser with the given options.
+   */
+  void reset(ParserOptions options) {
+    deduplication = options.deduplication();
+    for (var frame : frames) {
+      if (frame == null) {
+        continue;
+      }
+      frame.elements.clear();
+      frame.members = null;
+      frame.name = null;
+    }
+    depth = 0;
+    interned = null;
   }
 
-  private JsonObject parseObject() {
-    enum Status {
-      INIT,
-      AFTER_NAME,
-      AFTER_COLON,
-      AFTER_VALUE,
-      AFTER_COMMA,
-    }
-
-    var object = new LinkedHashMap<String, JsonValue>();
-    var status = Status.INIT;
-    String currentName = null;
-    while (tokens.hasNext()) {
-      var current = tokens.next();
-      switch (status) {
-        case INIT -> {
-          if (current instanceof Token.RightCurly) {
-            return JsonObject.EMPTY;
-          }
-          if (current instanceof Token.String name) {
-            currentName = name.value();
-            status = Status.AFTER_NAME;
-          } else {
-            throw ParserException.unexpectedToken(current);
-          }
-        }
-        case AFTER_NAME -> {
-          if (current instanceof Token.Colon) {
-            status = Status.AFTER_COLON;
-          } else {
-            throw ParserException.unexpectedToken(current);
-          }
-        }
-        case AFTER_COLON -> {
-          object.put(currentName, parseValue(current));
-          status = Status.AFTER_VALUE;
-        }
-        case AFTER_VALUE -> {
-          if (current instanceof Token.Comma) {
-            status = Status.AFTER_COMMA;
-          } else if (current instanceof Token.RightCurly) {
-            return new JsonObject(object);
-          } else {
-            throw ParserException.unexpectedToken(current);
-          }
-        }
-        case AFTER_COMMA -> {
-          if (current instanceof Token.String name) {
-            currentName = name.value();
-            status = Status.AFTER_NAME;
-          } else {
-            throw ParserException.unexpectedToken(current);
-          }
-        }
+  /**
+   * Drops the frames which have held more than the given number of elements, and all of them if they are nested
+   * deeper than that, so that a pooled parser does not keep the memory taken by its largest input.
+   */
+  void trim(int maxSize) {
+    if (maxSize < frames.length) {
+      frames = new Frame[16];
+      return;
+    }
+    for (var i = 0; i < frames.length; i++) {
+      if (frames[i] != null && maxSize < frames[i].largest) {
+        frames[i] = null;
       }
     }
-    throw ParserException.unexpectedEOF();
+  }
+
+  private void begin() {
+    if (depth == 0 && deduplication) {
+      interned = new HashMap<>();
+    }
+  }
+
+  /**
+   * Returns the value equal to the given one which has been parsed before, or the given value itself, which is then
+   * kept for the following ones while the table has room. The arrays and objects containing decimals or big integers
+   * are not given, since equal ones may be written differently.
+   */
+  private JsonValue intern(JsonValue value) {
+    if (!(value instanceof JsonArray || value instanceof JsonObject || value instanceof JsonString)
+        || value == JsonArray.EMPTY || value == JsonObject.EMPTY) {
+      return value;
+    }
+    var canonical = interned.get(value);
+    if (canonical != null) {
+      return canonical;
+    }
+    if (interned.size() < MAX_INTERNED) {
+      interned.put(value, value);
+    }
+    return value;
+  }
+
+  private Frame frame(int index) {
+    if (index == frames.length) {
+      frames = Arrays.copyOf(frames, index * 2);
+    }
+    var frame = frames[index];
+    if (frame == null) {
+      frame = new Frame();
+      frames[index] = frame;
+    }
+    return frame;
+  }
+
+  private static final class Frame {
+
+    final ArrayList<JsonValue> elements = new ArrayList<>();
+
+    // null while parsing an array
+    LinkedHashMap<String, JsonValue> members;
+
+    String name;
+
+    // the largest number of elements held so far, which the capacity of the list has grown to
+    int largest;
+
+    // whether the elements or members contain numbers kept as written, which are equal to the numbers written
+    // differently, e.g. 1.0 and 1.00, so that the array or object must not be replaced with an equal one
+    boolean textual;
+  }
+
+  /**
+   * Adapts an iterator of tokens to a {@link Tokenizer}.
+   */
+  private static final class TokenIterator implements Tokenizer {
+
+    private final Iterator<? extends Token> tokens;
+
+    private Token current;
+
+    TokenIterator(Iterator<? extends Token> tokens) {
+      this.tokens = tokens;
+    }
+
+    @Override
+    public Kind advance() {
+      if (!tokens.hasNext()) {
+        return null;
+      }
+      current = tokens.next();
+      return switch (current) {
+        case Token.LeftBracket _ -> Kind.LEFT_BRACKET;
+        case Token.RightBracket _ -> Kind.RIGHT_BRACKET;
+        case Token.LeftCurly _ -> Kind.LEFT_CURLY;
+        case Token.RightCurly _ -> Kind.RIGHT_CURLY;
+        case Token.Colon _ -> Kind.COLON;
+        case Token.Comma _ -> Kind.COMMA;
+        case Token.True _ -> Kind.TRUE;
+        case Token.False _ -> Kind.FALSE;
+        case Token.Null _ -> Kind.NULL;
+        case Token.String _ -> Kind.STRING;
+        case Token.Integer _ -> Kind.INTEGER;
+        case Token.Float _ -> Kind.FLOAT;
+        case Token.BigInteger _ -> Kind.BIG_INTEGER;
+        case Token.Decimal _ -> Kind.DECIMAL;
+      };
+    }
+
+    @Override
+    public long tokenLine() {
+      return current.line();
+    }
+
+    @Override
+    public long tokenColumn() {
+      return current.column();
+    }
+
+    @Override
+    public long longValue() {
+      return ((Token.Integer) current).value();
+    }
+
+    @Override
+    public double doubleValue() {
+      return ((Token.Float) current).value();
+    }
+
+    @Override
+    public String text() {
+      return switch (current) {
+        case Token.String t -> t.value();
+        case Token.BigInteger t -> t.text();
+        case Token.Decimal t -> t.text();
+        default -> throw new IllegalStateException();
+      };
+    }
+
+    @Override
+    public CharSequence textView() {
+      return text();
+    }
+
+    @Override
+    public Token toToken(Kind kind) {
+      return current;
+    }
   }
 }
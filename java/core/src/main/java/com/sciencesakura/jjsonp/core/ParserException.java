@@ -12,18 +12,22 @@ public final class ParserException extends RuntimeException {
   @Serial
   private static final long serialVersionUID = 1L;
 
+  private final String reason;
+
   private final long line;
 
   private final long column;
 
   private ParserException(String message, long line, long column) {
     super("%s at %d:%d".formatted(message, line, column));
+    this.reason = message;
     this.line = line;
     this.column = column;
   }
 
   private ParserException(String message) {
     super(message);
+    this.reason = message;
     this.line = 0;
     this.column = 0;
   }
@@ -36,6 +40,26 @@ public final class ParserException extends RuntimeException {
     return column;
   }
 
+  /**
+   * Returns the message without the position.
+   */
+  String reason() {
+    return reason;
+  }
+
+  /**
+   * Returns an exception with the same reason at the position moved by the given numbers of lines and columns, for
+   * errors in a part of a larger input. The columns are added only on the first line of the part.
+   */
+  ParserException shift(long lines, long columns) {
+    if (line == 0 || (lines == 0 && columns == 0)) {
+      return this;
+    }
+    var e = new ParserException(reason, line + lines, line == 1 ? column + columns : column);
+    e.setStackTrace(getStackTrace());
+    return e;
+  }
+
   static ParserException unexpectedCharacter(int c, long line, long column) {
     if (c == -1) {
       return unexpectedEOF(line, column);
@@ -52,6 +76,14 @@ public final class ParserException extends RuntimeException {
     return new ParserException("Unexpected end of input");
   }
 
+  static ParserException invalidUtf8(int b, long line, long column) {
+    return new ParserException("Invalid UTF-8 byte 0x%02X".formatted(b), line, column);
+  }
+
+  static ParserException tooDeep(int maxDepth, long line, long column) {
+    return new ParserException("Maximum depth of %d exceeded".formatted(maxDepth), line, column);
+  }
+
   static ParserException unknownToken(String token, long line, long column) {
     return new ParserException("Unknown token '%s'".formatted(token), line, column);
   }
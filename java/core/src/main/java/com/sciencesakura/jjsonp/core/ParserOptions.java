@@ -0,0 +1,202 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Options for parsing JSON.
+ *
+ * <p>Instances are immutable; use the {@code with} methods to derive new options from {@link #DEFAULT}.</p>
+ */
+public final class ParserOptions {
+
+  /** The default options. */
+  public static final ParserOptions DEFAULT = new ParserOptions(false, false, false, Integer.MAX_VALUE, null, false);
+
+  private final boolean strictUtf8;
+
+  private final boolean structuralIndex;
+
+  private final boolean exactDecimals;
+
+  private final int maxDepth;
+
+  private final NameCache nameCache;
+
+  private final boolean deduplication;
+
+  private ParserOptions(boolean strictUtf8, boolean structuralIndex, boolean exactDecimals, int maxDepth,
+                        NameCache nameCache, boolean deduplication) {
+    this.strictUtf8 = strictUtf8;
+    this.structuralIndex = structuralIndex;
+    this.exactDecimals = exactDecimals;
+    this.maxDepth = maxDepth;
+    this.nameCache = nameCache;
+    this.deduplication = deduplication;
+  }
+
+  /**
+   * Returns {@code true} if invalid UTF-8 byte sequences in strings are rejected.
+   *
+   * <p>If {@code false}, which is the default, each invalid byte is replaced with U+FFFD.</p>
+   *
+   * @return {@code true} if invalid UTF-8 byte sequences in strings are rejected.
+   */
+  public boolean strictUtf8() {
+    return strictUtf8;
+  }
+
+  /**
+   * Returns options with the specified UTF-8 handling.
+   *
+   * @param strictUtf8 {@code true} to reject invalid UTF-8 byte sequences in strings.
+   * @return the new options.
+   */
+  @NonNull
+  public ParserOptions withStrictUtf8(boolean strictUtf8) {
+    return new ParserOptions(strictUtf8, structuralIndex, exactDecimals, maxDepth, nameCache, deduplication);
+  }
+
+  /**
+   * Returns {@code true} if the input is indexed before being parsed.
+   *
+   * <p>If {@code true}, the positions of all structural characters are found in one pass over the input before
+   * tokenizing it: the tokenizer jumps over the whitespace to the next position, and the values skipped, e.g. those
+   * not selected by a projection, are skipped by matching their brackets and quotation marks on the index instead of
+   * reading their bytes one by one. The tokens read are still lexed from the input. This applies only to the input held in
+   * memory as a whole, i.e. byte arrays and buffers backed by an accessible array; otherwise it is ignored.
+   * The default is {@code false}.</p>
+   *
+   * @return {@code true} if the input is indexed before being parsed.
+   */
+  public boolean structuralIndex() {
+    return structuralIndex;
+  }
+
+  /**
+   * Returns options with the specified indexing.
+   *
+   * @param structuralIndex {@code true} to index the input before parsing it.
+   * @return the new options.
+   */
+  @NonNull
+  public ParserOptions withStructuralIndex(boolean structuralIndex) {
+    return new ParserOptions(strictUtf8, structuralIndex, exactDecimals, maxDepth, nameCache, deduplication);
+  }
+
+  /**
+   * Returns {@code true} if floating-point numbers are parsed without loss of precision.
+   *
+   * <p>If {@code true}, floating-point numbers are parsed into {@link JsonDecimal}s which keep the numbers as they are
+   * written and convert them on demand. Otherwise, which is the default, they are parsed into {@link JsonFloat}s.
+   * Integer numbers out of the range of {@code long} are always parsed into {@link JsonBigInteger}s.</p>
+   *
+   * @return {@code true} if floating-point numbers are parsed without loss of precision.
+   */
+  public boolean exactDecimals() {
+    return exactDecimals;
+  }
+
+  /**
+   * Returns options with the specified handling of floating-point numbers.
+   *
+   * @param exactDecimals {@code true} to parse floating-point numbers without loss of precision.
+   * @return the new options.
+   */
+  @NonNull
+  public ParserOptions withExactDecimals(boolean exactDecimals) {
+    return new ParserOptions(strictUtf8, structuralIndex, exactDecimals, maxDepth, nameCache, deduplication);
+  }
+
+  /**
+   * Returns the maximum nesting depth of arrays and objects.
+   *
+   * <p>A JSON text nested deeper than this is rejected with a {@link ParserException} as soon as the limit is
+   * exceeded. The default is {@link Integer#MAX_VALUE}, i.e. unlimited; the nesting depth is bounded only by the
+   * memory, as arrays and objects are parsed without recursion.</p>
+   *
+   * @return the maximum nesting depth of arrays and objects.
+   */
+  public int maxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Returns options with the specified maximum nesting depth.
+   *
+   * @param maxDepth the maximum nesting depth of arrays and objects.
+   * @return the new options.
+   * @throws IllegalArgumentException if {@code maxDepth} is negative.
+   */
+  @NonNull
+  public ParserOptions withMaxDepth(int maxDepth) {
+    if (maxDepth < 0) {
+      throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+    }
+    return new ParserOptions(strictUtf8, structuralIndex, exactDecimals, maxDepth, nameCache, deduplication);
+  }
+
+  /**
+   * Returns the cache of the names of object members shared by the parsers, or {@code null} if each parser has its
+   * own cache.
+   *
+   * <p>The default is {@code null}, in which case each parser caches up to 256 names.</p>
+   *
+   * @return the shared cache of names, or {@code null}.
+   */
+  @Nullable
+  public NameCache nameCache() {
+    return nameCache;
+  }
+
+  /**
+   * Returns options with the specified cache of the names of object members.
+   *
+   * @param nameCache the cache of names shared by the parsers, or {@code null} for each parser to have its own cache.
+   * @return the new options.
+   */
+  @NonNull
+  public ParserOptions withNameCache(@Nullable NameCache nameCache) {
+    return new ParserOptions(strictUtf8, structuralIndex, exactDecimals, maxDepth, nameCache, deduplication);
+  }
+
+  /**
+   * Returns {@code true} if identical arrays, objects and strings in a value share one instance.
+   *
+   * <p>If {@code true}, each array, object and string is looked up in a table of those already parsed in the same
+   * value, and replaced with the one found equal to it, so that the repeated parts of a value, e.g. blocks of default
+   * settings, are retained only once. Since the parts are looked up as they are completed, from the innermost, the
+   * elements and members of equal arrays and objects are already the same instances, so comparing them is cheap. The
+   * table is dropped once the value is complete, and holds up to 65536 entries. The default is {@code false}.</p>
+   *
+   * <p>The arrays and objects containing {@link JsonDecimal}s or {@link JsonBigInteger}s are not shared, since they
+   * keep the numbers as written, and equal numbers may be written differently, e.g. {@code 1.0} and {@code 1.00}.
+   * This applies to the values built as trees, not to the compact or lazy representations.</p>
+   *
+   * @return {@code true} if identical arrays, objects and strings in a value share one instance.
+   */
+  public boolean deduplication() {
+    return deduplication;
+  }
+
+  /**
+   * Returns options with the specified sharing of identical values.
+   *
+   * @param deduplication {@code true} for identical arrays, objects and strings in a value to share one instance.
+   * @return the new options.
+   */
+  @NonNull
+  public ParserOptions withDeduplication(boolean deduplication) {
+    return new ParserOptions(strictUtf8, structuralIndex, exactDecimals, maxDepth, nameCache, deduplication);
+  }
+
+  /**
+   * Returns these options if they have a shared cache of names, or options with a new one otherwise, for the parsers
+   * which lex the parts of one input with separate lexers, so that the lexers share one cache.
+   */
+  ParserOptions withNameCacheShared() {
+    return nameCache != null ? this : withNameCache(NameCache.of(NameCache.DEFAULT_CAPACITY));
+  }
+}
@@ -0,0 +1,241 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * A set of paths to the values to be parsed, the others being skipped.
+ *
+ * <p>Each path is a JSON Pointer (RFC 6901), e.g. {@code /user/id}, whose reference token {@code *} matches every
+ * member of an object and every element of an array, e.g. {@code /items/*}{@code /price}. A reference token which
+ * is a non-negative integer also matches the element of an array at that index. The empty path selects the whole
+ * value.</p>
+ *
+ * <p>When parsing with a projection, the selected values are parsed as usual, and the arrays and objects enclosing
+ * them are built with only the elements and members on the paths. The other values are skipped by matching their
+ * brackets and quotes, without decoding the strings and numbers in them; so they are not checked to be valid.</p>
+ *
+ * <p>Instances are immutable.</p>
+ *
+ * @see JJson#parse(byte[], Projection)
+ */
+public final class Projection {
+
+  private static final String WILDCARD = "*";
+
+  private final List<String> paths;
+
+  private final Node root;
+
+  private Projection(List<String> paths, Node root) {
+    this.paths = paths;
+    this.root = root;
+  }
+
+  /**
+   * Returns a projection selecting the values at the given paths.
+   *
+   * @param paths the JSON Pointers to the values to select.
+   * @return the projection.
+   * @throws IllegalArgumentException if a path is not a valid JSON Pointer.
+   */
+  @NonNull
+  public static Projection of(@NonNull String... paths) {
+    var root = new Builder();
+    for (var path : paths) {
+      var node = root;
+      for (var token : tokens(path)) {
+        node = token == null ? node.any() : node.member(token);
+      }
+      node.selected = true;
+    }
+    root.spread();
+    return new Projection(List.of(paths), root.build());
+  }
+
+  @Override
+  public String toString() {
+    return "Projection" + paths;
+  }
+
+  Node root() {
+    return root;
+  }
+
+  /**
+   * Returns the unescaped reference tokens of the given path, where {@code null} is the wildcard.
+   */
+  private static List<String> tokens(String path) {
+    if (path.isEmpty()) {
+      return List.of();
+    }
+    if (path.charAt(0) != '/') {
+      throw new IllegalArgumentException("Invalid JSON Pointer: " + path);
+    }
+    var tokens = new ArrayList<String>();
+    for (var token : path.substring(1).split("/", -1)) {
+      if (token.equals(WILDCARD)) {
+        tokens.add(null);
+        continue;
+      }
+      var unescaped = new StringBuilder(token.length());
+      for (var i = 0; i < token.length(); i++) {
+        var c = token.charAt(i);
+        if (c == '~') {
+          var next = i + 1 < token.length() ? token.charAt(++i) : -1;
+          if (next != '0' && next != '1') {
+            throw new IllegalArgumentException("Invalid JSON Pointer: " + path);
+          }
+          c = next == '0' ? '~' : '/';
+        }
+        unescaped.append(c);
+      }
+      tokens.add(unescaped.toString());
+    }
+    return tokens;
+  }
+
+  /**
+   * Returns the index of an array which the given reference token stands for, or -1 if it is not an index.
+   */
+  private static int index(String token) {
+    if (token.isEmpty() || 9 < token.length() || (token.charAt(0) == '0' && token.length() != 1)) {
+      return -1;
+    }
+    for (var i = 0; i < token.length(); i++) {
+      if (!Characters.isDigit(token.charAt(i))) {
+        return -1;
+      }
+    }
+    return Integer.parseInt(token);
+  }
+
+  /**
+   * A position on the paths.
+   */
+  static final class Node {
+
+    private final boolean selected;
+
+    private final String[] names;
+
+    private final Node[] children;
+
+    // the indices of the arrays which the names stand for, or -1
+    private final int[] indices;
+
+    private final int maxIndex;
+
+    private final Node any;
+
+    private Node(boolean selected, String[] names, Node[] children, Node any) {
+      this.selected = selected;
+      this.names = names;
+      this.children = children;
+      this.indices = new int[names.length];
+      var maxIndex = -1;
+      for (var i = 0; i < names.length; i++) {
+        indices[i] = index(names[i]);
+        maxIndex = Math.max(maxIndex, indices[i]);
+      }
+      this.maxIndex = maxIndex;
+      this.any = any;
+    }
+
+    /**
+     * Returns {@code true} if the value at this position is selected as a whole.
+     */
+    boolean selected() {
+      return selected;
+    }
+
+    /**
+     * Returns the position of the member with the given name, or {@code null} if it is not on the paths.
+     */
+    Node member(CharSequence name) {
+      for (var i = 0; i < names.length; i++) {
+        if (names[i].contentEquals(name)) {
+          return children[i];
+        }
+      }
+      return any;
+    }
+
+    /**
+     * Returns the position of the element at the given index, or {@code null} if it is not on the paths.
+     */
+    Node element(int index) {
+      for (var i = 0; i < indices.length; i++) {
+        if (indices[i] == index) {
+          return children[i];
+        }
+      }
+      return any;
+    }
+
+    /**
+     * Returns {@code true} if no element at the given index or after is on the paths.
+     */
+    boolean endsBefore(int index) {
+      return any == null && maxIndex < index;
+    }
+  }
+
+  private static final class Builder {
+
+    private final Map<String, Builder> members = new LinkedHashMap<>();
+
+    private Builder any;
+
+    private boolean selected;
+
+    Builder member(String name) {
+      return members.computeIfAbsent(name, key -> new Builder());
+    }
+
+    Builder any() {
+      if (any == null) {
+        any = new Builder();
+      }
+      return any;
+    }
+
+    /**
+     * Adds the paths under the wildcard to those under each name, since a member or element matching a name matches
+     * the wildcard as well.
+     */
+    void spread() {
+      if (any != null) {
+        any.spread();
+        for (var member : members.values()) {
+          member.add(any);
+        }
+      }
+      for (var member : members.values()) {
+        member.spread();
+      }
+    }
+
+    Node build() {
+      var names = members.keySet().toArray(String[]::new);
+      var children = new Node[names.length];
+      for (var i = 0; i < names.length; i++) {
+        children[i] = members.get(names[i]).build();
+      }
+      return new Node(selected, names, children, any == null ? null : any.build());
+    }
+
+    private void add(Builder other) {
+      selected |= other.selected;
+      other.members.forEach((name, member) -> member(name).add(member));
+      if (other.any != null) {
+        any().add(other.any);
+      }
+    }
+  }
+}
@@ -0,0 +1,91 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * A parser which builds only the values selected by a projection.
+ *
+ * <p>The values on the paths are read event by event down to the selected ones, which are parsed by {@link Parser}.
+ * The values of the members not on the paths, and the rest of the arrays after the last index on the paths, are
+ * skipped without being tokenized. The recursion is as deep as the longest path.</p>
+ */
+final class ProjectionParser {
+
+  private final JsonReader reader;
+
+  private final Parser parser;
+
+  ProjectionParser(JsonReader reader, ParserOptions options) {
+    this.reader = reader;
+    this.parser = new Parser(reader, options);
+  }
+
+  Optional<JsonValue> parse(Projection projection) {
+    return reader.hasNext() ? Optional.ofNullable(value(reader.next(), projection.root())) : Optional.empty();
+  }
+
+  /**
+   * Returns the projection of the value starting with the given event, or {@code null} if it is a scalar not
+   * selected.
+   */
+  private JsonValue value(JsonReader.Event event, Projection.Node node) {
+    if (node.selected()) {
+      return parser.parseValue(event);
+    }
+    return switch (event) {
+      case START_ARRAY -> array(node);
+      case START_OBJECT -> object(node);
+      default -> null;
+    };
+  }
+
+  private JsonValue array(Projection.Node node) {
+    var elements = new ArrayList<JsonValue>();
+    for (var index = 0; ; index++) {
+      if (node.endsBefore(index)) {
+        reader.skipRest();
+        break;
+      }
+      var child = node.element(index);
+      if (child == null) {
+        if (!reader.skipElement()) {
+          break;
+        }
+        continue;
+      }
+      var event = reader.next();
+      if (event == JsonReader.Event.END_ARRAY) {
+        break;
+      }
+      var value = value(event, child);
+      if (value != null) {
+        elements.add(value);
+      }
+    }
+    return elements.isEmpty() ? JsonArray.EMPTY : new JsonArray(elements);
+  }
+
+  private JsonValue object(Projection.Node node) {
+    var members = new LinkedHashMap<String, JsonValue>();
+    while (reader.next() == JsonReader.Event.NAME) {
+      var child = node.member(reader.textView());
+      if (child == null) {
+        reader.skipMemberValue();
+        continue;
+      }
+      var name = reader.getString();
+      var value = value(reader.next(), child);
+      if (value != null) {
+        members.put(name, value);
+      } else {
+        // a duplicate name takes the last value
+        members.remove(name);
+      }
+    }
+    return members.isEmpty() ? JsonObject.EMPTY : new JsonObject(members);
+  }
+}
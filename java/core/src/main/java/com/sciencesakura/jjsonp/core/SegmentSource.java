@@ -0,0 +1,62 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * A source which reads bytes from a memory segment, e.g. a memory-mapped file or a direct buffer.
+ *
+ * <p>The window is filled by bulk copies from the segment, so no system calls are made. The segment may be larger
+ * than 2 GiB.</p>
+ *
+ * <p>The segment is copied rather than scanned in place on purpose: the lexer and the structural index work on the
+ * window as a byte array, reading eight bytes at a time from it, and a second lexer over segments would have to
+ * duplicate all of them. The window is small enough to stay in the cache, so the copy costs one pass of
+ * {@code memcpy} over the input, which is much less than lexing it.</p>
+ */
+final class SegmentSource extends Source {
+
+  private MemorySegment segment;
+
+  private long size;
+
+  private long offset;
+
+  SegmentSource(MemorySegment segment, int bufferSize) {
+    super(new byte[bufferSize], 0, 0);
+    reset(segment);
+  }
+
+  /**
+   * Starts reading from the given segment, for reusing this source. The window is kept.
+   */
+  void reset(MemorySegment segment) {
+    this.segment = segment;
+    size = segment.byteSize();
+    offset = 0;
+    position = 0;
+    limit = 0;
+  }
+
+  /**
+   * Drops the reference to the segment, for keeping this source for later use.
+   */
+  void clear() {
+    reset(MemorySegment.NULL);
+  }
+
+  @Override
+  boolean fill() {
+    compact();
+    var n = (int) Math.min(buffer.length - limit, size - offset);
+    if (n <= 0) {
+      return false;
+    }
+    MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset, buffer, limit, n);
+    offset += n;
+    limit += n;
+    return true;
+  }
+}
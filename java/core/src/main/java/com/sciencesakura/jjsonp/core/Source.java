@@ -3,51 +3,62 @@
 package com.sciencesakura.jjsonp.core;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
 
-final class Source {
+/**
+ * A window of bytes over the input.
+ *
+ * <p>The bytes between {@link #position} (inclusive) and {@link #limit} (exclusive) of {@link #buffer} are
+ * available to be read. A reader scans the window directly, advancing {@link #position}, and calls {@link #fill()}
+ * only when it reaches the limit.</p>
+ */
+abstract sealed class Source permits ArraySource, ChannelSource, FeedSource, SegmentSource {
 
-  private final ReadableByteChannel channel;
+  byte[] buffer;
 
-  private final ByteBuffer buffer;
+  int position;
 
-  private final int[] queue = {-1, -1, -1, -1};
+  int limit;
 
-  private int queueHead = 0;
-
-  private int queueTail = 0;
-
-  Source(ReadableByteChannel channel, int bufferSize) throws IOException {
-    this.channel = channel;
-    this.buffer = ByteBuffer.allocate(bufferSize);
-    load();
+  Source(byte[] buffer, int position, int limit) {
+    this.buffer = buffer;
+    this.position = position;
+    this.limit = limit;
   }
 
-  int read() throws IOException {
-    var b = queue[queueHead];
-    if (b == -1) {
-      return buffer.hasRemaining() || 0 < load() ? Byte.toUnsignedInt(buffer.get()) : -1;
-    }
-    queue[queueHead] = -1;
-    queueHead = (queueHead + 1) % queue.length;
-    return b;
-  }
+  /**
+   * Reads more bytes into the window. The unread bytes are kept, but they may be moved within the buffer, or into a
+   * new buffer.
+   *
+   * @return {@code false} if no more bytes could be read.
+   */
+  abstract boolean fill() throws IOException;
 
-  void back(int... bytes) {
-    var position = buffer.position();
-    var shortage = bytes.length - position;
-    for (var i = 0; i < shortage; i++) {
-      queue[queueTail] = bytes[i];
-      queueTail = (queueTail + 1) % queue.length;
+  /**
+   * Fills the window until at least {@code n} bytes are available.
+   *
+   * @return {@code false} if the end of input has been reached before that.
+   */
+  final boolean ensure(int n) throws IOException {
+    while (limit - position < n) {
+      if (!fill()) {
+        return false;
+      }
     }
-    buffer.position(Math.max(0, -shortage));
+    return true;
   }
 
-  private int load() throws IOException {
-    buffer.clear();
-    var n = channel.read(buffer);
-    buffer.flip();
-    return n;
+  /**
+   * Moves the unread bytes to the front of the buffer, growing it if there is no free space.
+   */
+  final void compact() {
+    var remaining = limit - position;
+    if (0 < position) {
+      System.arraycopy(buffer, position, buffer, 0, remaining);
+      position = 0;
+      limit = remaining;
+    } else if (limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(8, buffer.length * 2));
+    }
   }
 }
@@ -0,0 +1,130 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the structural characters in a JSON text.
+ *
+ * <p>The structural characters are {@code {}[]:,} outside strings, the unescaped quotation marks which open and close
+ * strings, and the first bytes of the other tokens (literals and numbers). The index is built in one pass, 64 bytes
+ * at a time: the bytes are classified into bitmasks with {@link Swar} and the in-string state is tracked as a prefix
+ * XOR of the quotation mark bits.</p>
+ */
+final class StructuralIndex {
+
+  private static final int BLOCK_SIZE = 64;
+
+  private int[] positions;
+
+  private int size;
+
+  // carried over from the previous block
+  private long escapedCarry;
+
+  private long inStringCarry;
+
+  private long predecessorCarry = 1;
+
+  private StructuralIndex(int capacity) {
+    this.positions = new int[capacity];
+  }
+
+  /**
+   * Builds the index of the given range of the byte array.
+   */
+  static StructuralIndex build(byte[] bytes, int from, int to) {
+    var index = new StructuralIndex(Math.max(BLOCK_SIZE, (to - from) / 4));
+    var i = from;
+    for (; i + BLOCK_SIZE <= to; i += BLOCK_SIZE) {
+      index.scan(bytes, i, i, -1L);
+    }
+    if (i < to) {
+      var block = Arrays.copyOfRange(bytes, i, i + BLOCK_SIZE);
+      index.scan(block, 0, i, -1L >>> (BLOCK_SIZE - (to - i)));
+    }
+    return index;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int get(int i) {
+    return positions[i];
+  }
+
+  /**
+   * Returns the index of the first position not less than the given position, starting the search at {@code i}.
+   */
+  int next(int i, int position) {
+    var j = i;
+    while (j < size && positions[j] < position) {
+      j++;
+    }
+    return j;
+  }
+
+  private void scan(byte[] bytes, int offset, int base, long valid) {
+    var backslashes = 0L;
+    var quotes = 0L;
+    var structurals = 0L;
+    var whitespaces = 0L;
+    for (var k = 0; k < BLOCK_SIZE / 8; k++) {
+      var w = Swar.read(bytes, offset + k * 8);
+      var folded = w | 0x2020202020202020L;
+      var shift = k * 8;
+      backslashes |= Swar.pack(Swar.eq(w, '\\')) << shift;
+      quotes |= Swar.pack(Swar.eq(w, '"')) << shift;
+      // '[' and ']' are folded into '{' and '}'
+      structurals |= Swar.pack(Swar.eq(folded, '{') | Swar.eq(folded, '}') | Swar.eq(w, ':') | Swar.eq(w, ','))
+          << shift;
+      whitespaces |= Swar.pack(Swar.eq(w, ' ') | Swar.eq(w, '\t') | Swar.eq(w, '\n') | Swar.eq(w, '\r')) << shift;
+    }
+    quotes &= ~escaped(backslashes & valid);
+    quotes &= valid;
+    var inString = prefixXor(quotes) ^ inStringCarry;
+    inStringCarry = inString >> 63;
+    var predecessors = structurals | whitespaces | quotes;
+    var scalars = ~predecessors & ((predecessors << 1) | predecessorCarry);
+    predecessorCarry = predecessors >>> 63;
+    var bits = (((structurals | scalars) & ~inString) | quotes) & valid;
+    if (positions.length < size + BLOCK_SIZE) {
+      positions = Arrays.copyOf(positions, positions.length * 2 + BLOCK_SIZE);
+    }
+    while (bits != 0) {
+      positions[size++] = base + Long.numberOfTrailingZeros(bits);
+      bits &= bits - 1;
+    }
+  }
+
+  /**
+   * Returns the mask of the characters escaped by the given backslashes.
+   */
+  private long escaped(long backslashes) {
+    var escaped = escapedCarry;
+    escapedCarry = 0;
+    var unescaped = backslashes & ~escaped;
+    while (unescaped != 0) {
+      var bit = unescaped & -unescaped;
+      if (bit == Long.MIN_VALUE) {
+        escapedCarry = 1;
+      }
+      escaped |= bit << 1;
+      unescaped &= ~(bit | (bit << 1));
+    }
+    return escaped;
+  }
+
+  private static long prefixXor(long bits) {
+    var x = bits;
+    x ^= x << 1;
+    x ^= x << 2;
+    x ^= x << 4;
+    x ^= x << 8;
+    x ^= x << 16;
+    x ^= x << 32;
+    return x;
+  }
+}
@@ -0,0 +1,72 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Provides static methods to process eight bytes at once within a {@code long} word (SIMD within a register).
+ *
+ * <p>The masks returned by these methods have the most significant bit of each byte set for the matching bytes, and
+ * they are exact: no bits are set for the non-matching bytes. Since words are read in little-endian order, the
+ * index of the first matching byte is {@code Long.numberOfTrailingZeros(mask) >>> 3}.</p>
+ */
+final class Swar {
+
+  static final long HIGH_BITS = 0x8080808080808080L;
+
+  private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+  private static final long ONES = 0x0101010101010101L;
+
+  private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private Swar() {
+  }
+
+  /**
+   * Reads eight bytes starting at the given index as a little-endian word.
+   */
+  static long read(byte[] bytes, int index) {
+    return (long) LONG.get(bytes, index);
+  }
+
+  /**
+   * Returns the mask of the bytes equal to {@code b}.
+   */
+  static long eq(long word, int b) {
+    var x = word ^ (ONES * b);
+    return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+  }
+
+  /**
+   * Returns the mask of the bytes less than {@code n} as unsigned values, where {@code n} is at most {@code 0x80}.
+   */
+  static long lt(long word, int n) {
+    return ~(((word & LOW_BITS) + ONES * (0x80 - n)) | word) & HIGH_BITS;
+  }
+
+  /**
+   * Packs the given mask into eight bits, so that bit {@code k} is set if byte {@code k} matches.
+   */
+  static long pack(long mask) {
+    return ((mask >>> 7) * 0x0102040810204080L) >>> 56;
+  }
+
+  /**
+   * Returns {@code true} if all bytes in the given range are ASCII characters.
+   */
+  static boolean isAscii(byte[] bytes, int from, int to) {
+    var i = from;
+    var acc = 0L;
+    for (; i + 8 <= to; i += 8) {
+      acc |= read(bytes, i);
+    }
+    for (; i < to; i++) {
+      acc |= bytes[i];
+    }
+    return (acc & HIGH_BITS) == 0;
+  }
+}
@@ -0,0 +1,516 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A compact representation of a JSON value: a flat array of typed entries, called the tape, and a pool of the
+ * characters of all strings.
+ *
+ * <p>Each entry is a {@code long} whose upper 8 bits are the type and the lower 56 bits the payload:</p>
+ * <ul>
+ *   <li>An array or object starts with an entry holding the index of its end entry and the number of its elements
+ *   or members, and ends with an entry holding the index of its start entry. A member is its name, a string entry,
+ *   followed by its value.</li>
+ *   <li>A string, a big integer or a decimal holds the offset of its characters in the pool, which are preceded by
+ *   their length.</li>
+ *   <li>An integer or a float is followed by an entry holding its 64 bits.</li>
+ *   <li>{@code true}, {@code false} and {@code null} have no payload.</li>
+ * </ul>
+ *
+ * <p>The arrays and objects built from a tape are views which build their elements and values every time they are
+ * accessed, so only the tape and the pool stay in memory. Since an array or object is followed by the next value
+ * on the tape, iterating over them reads the tape sequentially.</p>
+ *
+ * <p>The tape and the pool are memory segments, which are either on the heap or allocated by an arena. In the
+ * latter case, they are freed when the arena is closed, after which the views cannot be accessed.</p>
+ */
+final class Tape {
+
+  private static final int TYPE_SHIFT = 56;
+
+  private static final long PAYLOAD_MASK = (1L << TYPE_SHIFT) - 1;
+
+  private static final int COUNT_SHIFT = 32;
+
+  // the larger numbers of elements or members are counted on the tape
+  private static final int MAX_COUNT = 0xFFFFFF;
+
+  // the objects with at most this number of members are searched without building the index of their names
+  private static final int MAX_LINEAR_SEARCH = 8;
+
+  private static final int ARRAY = 1;
+
+  private static final int OBJECT = 2;
+
+  private static final int END = 3;
+
+  private static final int STRING = 4;
+
+  private static final int INTEGER = 5;
+
+  private static final int FLOAT = 6;
+
+  private static final int BIG_INTEGER = 7;
+
+  private static final int DECIMAL = 8;
+
+  private static final int TRUE = 9;
+
+  private static final int FALSE = 10;
+
+  private static final int NULL = 11;
+
+  private final MemorySegment entries;
+
+  private final MemorySegment pool;
+
+  private Tape(MemorySegment entries, MemorySegment pool) {
+    this.entries = entries;
+    this.pool = pool;
+  }
+
+  /**
+   * Reads the next value from the given reader onto a tape allocated by the given arena, or on the heap if it is
+   * {@code null}, and returns the view of it.
+   */
+  static Optional<JsonValue> parse(JsonReader reader, Arena arena) {
+    if (!reader.hasNext()) {
+      return Optional.empty();
+    }
+    try (var builder = new Builder(arena != null)) {
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case START_ARRAY -> builder.start(ARRAY);
+          case START_OBJECT -> builder.start(OBJECT);
+          case END_ARRAY, END_OBJECT -> builder.end();
+          case NAME -> builder.string(STRING, reader.textView(), false);
+          case STRING -> builder.string(STRING, reader.textView(), true);
+          case INTEGER -> {
+            if (reader.valueKind() == Tokenizer.Kind.INTEGER) {
+              builder.number(INTEGER, reader.getLong());
+            } else {
+              builder.string(BIG_INTEGER, reader.textView(), true);
+            }
+          }
+          case FLOAT -> {
+            if (reader.valueKind() == Tokenizer.Kind.FLOAT) {
+              builder.number(FLOAT, Double.doubleToRawLongBits(reader.getDouble()));
+            } else {
+              builder.string(DECIMAL, reader.textView(), true);
+            }
+          }
+          case TRUE -> builder.literal(TRUE);
+          case FALSE -> builder.literal(FALSE);
+          case NULL -> builder.literal(NULL);
+        }
+      }
+      return Optional.of(builder.build(arena).value(0));
+    }
+  }
+
+  /**
+   * Returns the view of the value at the given index.
+   */
+  private JsonValue value(int index) {
+    var entry = entry(index);
+    return switch (type(entry)) {
+      case ARRAY -> count(index) == 0 ? JsonArray.EMPTY : new JsonArray(new Elements(this, index));
+      case OBJECT -> count(index) == 0 ? JsonObject.EMPTY : new JsonObject(new Members(this, index));
+      case STRING -> new JsonString(string(index));
+      case INTEGER -> new JsonInteger(entry(index + 1));
+      case FLOAT -> new JsonFloat(Double.longBitsToDouble(entry(index + 1)));
+      case BIG_INTEGER -> JsonBigInteger.ofText(string(index));
+      case DECIMAL -> JsonDecimal.ofText(string(index));
+      case TRUE -> JsonBool.TRUE;
+      case FALSE -> JsonBool.FALSE;
+      case NULL -> JsonNull.INSTANCE;
+      default -> throw new IllegalStateException("Not a value: " + index);
+    };
+  }
+
+  /**
+   * Returns the index of the value following the one at the given index.
+   */
+  private int next(int index) {
+    var entry = entry(index);
+    return switch (type(entry)) {
+      case ARRAY, OBJECT -> (int) entry + 1;
+      case INTEGER, FLOAT -> index + 2;
+      default -> index + 1;
+    };
+  }
+
+  private boolean isEnd(int index) {
+    return type(entry(index)) == END;
+  }
+
+  /**
+   * Returns the number of the elements or members of the array or object starting at the given index.
+   */
+  private int count(int start) {
+    var count = (int) (entry(start) >>> COUNT_SHIFT) & MAX_COUNT;
+    if (count == MAX_COUNT) {
+      var step = type(entry(start)) == OBJECT ? 2 : 1;
+      count = 0;
+      for (var i = start + 1; !isEnd(i); i = next(i + step - 1)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private String string(int index) {
+    var offset = (int) (entry(index) & PAYLOAD_MASK);
+    var chars = new char[length(offset)];
+    MemorySegment.copy(pool, ValueLayout.JAVA_CHAR, (offset + 2L) * Character.BYTES, chars, 0, chars.length);
+    return new String(chars);
+  }
+
+  private boolean stringEquals(int index, String s) {
+    var offset = (int) (entry(index) & PAYLOAD_MASK);
+    var length = length(offset);
+    if (length != s.length()) {
+      return false;
+    }
+    for (var i = 0; i < length; i++) {
+      if (charAt(offset + 2 + i) != s.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int length(int offset) {
+    return charAt(offset) << 16 | charAt(offset + 1);
+  }
+
+  private long entry(int index) {
+    return entries.getAtIndex(ValueLayout.JAVA_LONG, index);
+  }
+
+  private char charAt(int offset) {
+    return pool.getAtIndex(ValueLayout.JAVA_CHAR, offset);
+  }
+
+  private static int type(long entry) {
+    return (int) (entry >>> TYPE_SHIFT);
+  }
+
+  /**
+   * Builds a tape. The entries and the pool are written to memory segments, which are on the heap or, for a tape to
+   * be allocated by an arena, off the heap; so building an off-heap tape puts nothing on the heap but the stack of
+   * the arrays and objects being built.
+   */
+  private static final class Builder implements AutoCloseable {
+
+    private final Buffer entries;
+
+    private int size;
+
+    private final Buffer pool;
+
+    private int poolSize;
+
+    // the indices of the start entries of the arrays and objects being built, and the numbers of their elements or
+    // members
+    private int[] starts = new int[16];
+
+    private int[] counts = new int[16];
+
+    private int depth;
+
+    Builder(boolean offHeap) {
+      this.entries = new Buffer(ValueLayout.JAVA_LONG, 64, offHeap);
+      this.pool = new Buffer(ValueLayout.JAVA_CHAR, 256, offHeap);
+    }
+
+    void start(int type) {
+      count();
+      if (depth == starts.length) {
+        starts = Arrays.copyOf(starts, depth * 2);
+        counts = Arrays.copyOf(counts, depth * 2);
+      }
+      starts[depth] = size;
+      counts[depth++] = 0;
+      append((long) type << TYPE_SHIFT);
+    }
+
+    void end() {
+      var start = starts[--depth];
+      var count = Math.min(counts[depth], MAX_COUNT);
+      var segment = entries.segment;
+      segment.setAtIndex(ValueLayout.JAVA_LONG, start,
+          segment.getAtIndex(ValueLayout.JAVA_LONG, start) | (long) count << COUNT_SHIFT | size);
+      append((long) END << TYPE_SHIFT | start);
+    }
+
+    void string(int type, CharSequence text, boolean value) {
+      if (value) {
+        count();
+      }
+      var length = text.length();
+      pool.ensure(poolSize, (long) poolSize + length + 2);
+      append((long) type << TYPE_SHIFT | poolSize);
+      var segment = pool.segment;
+      segment.setAtIndex(ValueLayout.JAVA_CHAR, poolSize++, (char) (length >>> 16));
+      segment.setAtIndex(ValueLayout.JAVA_CHAR, poolSize++, (char) length);
+      for (var i = 0; i < length; i++) {
+        segment.setAtIndex(ValueLayout.JAVA_CHAR, poolSize++, text.charAt(i));
+      }
+    }
+
+    void number(int type, long bits) {
+      count();
+      append((long) type << TYPE_SHIFT);
+      append(bits);
+    }
+
+    void literal(int type) {
+      count();
+      append((long) type << TYPE_SHIFT);
+    }
+
+    Tape build(Arena arena) {
+      return new Tape(entries.copy(size, arena), pool.copy(poolSize, arena));
+    }
+
+    @Override
+    public void close() {
+      entries.close();
+      pool.close();
+    }
+
+    private void count() {
+      if (depth != 0) {
+        counts[depth - 1]++;
+      }
+    }
+
+    private void append(long entry) {
+      entries.ensure(size, size + 1L);
+      entries.segment.setAtIndex(ValueLayout.JAVA_LONG, size++, entry);
+    }
+  }
+
+  /**
+   * A growable buffer of {@code long}s or {@code char}s. Off the heap, each segment is allocated by a confined arena
+   * of its own, which is closed as soon as the segment has grown into a new one, so the outgrown segments do not
+   * pile up until the tape is built.
+   */
+  private static final class Buffer implements AutoCloseable {
+
+    private final ValueLayout layout;
+
+    private final boolean offHeap;
+
+    // the arena of the segment, or null on the heap
+    private Arena arena;
+
+    MemorySegment segment;
+
+    Buffer(ValueLayout layout, int capacity, boolean offHeap) {
+      this.layout = layout;
+      this.offHeap = offHeap;
+      this.segment = allocate(capacity);
+    }
+
+    /**
+     * Grows the buffer, keeping its first {@code used} elements, so that it holds at least {@code capacity}
+     * elements.
+     */
+    void ensure(int used, long capacity) {
+      var current = segment.byteSize() / layout.byteSize();
+      if (capacity <= current) {
+        return;
+      }
+      if (Integer.MAX_VALUE < capacity) {
+        throw new OutOfMemoryError("Too large to be put on a tape");
+      }
+      var previous = arena;
+      var grown = allocate((int) Math.min(Integer.MAX_VALUE, Math.max(current * 2, capacity)));
+      MemorySegment.copy(segment, 0, grown, 0, used * layout.byteSize());
+      segment = grown;
+      if (previous != null) {
+        previous.close();
+      }
+    }
+
+    /**
+     * Returns a segment of exactly the first {@code used} elements, allocated by the given arena, or on the heap if
+     * it is {@code null}.
+     */
+    MemorySegment copy(int used, Arena target) {
+      var bytes = used * layout.byteSize();
+      var copy = target == null ? heap(used) : target.allocate(bytes, layout.byteAlignment());
+      MemorySegment.copy(segment, 0, copy, 0, bytes);
+      return copy;
+    }
+
+    @Override
+    public void close() {
+      if (arena != null) {
+        arena.close();
+        arena = null;
+      }
+    }
+
+    private MemorySegment allocate(int capacity) {
+      if (!offHeap) {
+        return heap(capacity);
+      }
+      var scratch = Arena.ofConfined();
+      try {
+        var allocated = scratch.allocate(capacity * layout.byteSize(), layout.byteAlignment());
+        arena = scratch;
+        return allocated;
+      } catch (RuntimeException | Error e) {
+        scratch.close();
+        throw e;
+      }
+    }
+
+    private MemorySegment heap(int capacity) {
+      return layout.carrier() == long.class ? MemorySegment.ofArray(new long[capacity])
+          : MemorySegment.ofArray(new char[capacity]);
+    }
+  }
+
+  /**
+   * The view of the elements of an array.
+   */
+  private static final class Elements extends ValueList {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient Tape tape;
+
+    private final int start;
+
+    // the indices of the elements, which are found when an element is first accessed by its index
+    private transient volatile int[] offsets;
+
+    Elements(Tape tape, int start) {
+      this.tape = tape;
+      this.start = start;
+    }
+
+    @Override
+    public JsonValue get(int index) {
+      var offsets = this.offsets;
+      if (offsets == null) {
+        offsets = new int[size()];
+        for (int i = start + 1, n = 0; !tape.isEnd(i); i = tape.next(i)) {
+          offsets[n++] = i;
+        }
+        this.offsets = offsets;
+      }
+      Objects.checkIndex(index, offsets.length);
+      return tape.value(offsets[index]);
+    }
+
+    @Override
+    public int size() {
+      return tape.count(start);
+    }
+
+    @Override
+    public Iterator<JsonValue> iterator() {
+      return new Iterator<>() {
+
+        private int index = start + 1;
+
+        @Override
+        public boolean hasNext() {
+          return !tape.isEnd(index);
+        }
+
+        @Override
+        public JsonValue next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          var value = tape.value(index);
+          index = tape.next(index);
+          return value;
+        }
+      };
+    }
+  }
+
+  /**
+   * The view of the members of an object.
+   */
+  private static final class Members extends ValueMap {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient Tape tape;
+
+    private final int start;
+
+    // the index of the names, which is built when it is first needed
+    private transient volatile Map<String, Integer> slots;
+
+    Members(Tape tape, int start) {
+      this.tape = tape;
+      this.start = start;
+    }
+
+    @Override
+    public JsonValue get(Object name) {
+      if (MAX_LINEAR_SEARCH < tape.count(start) || slots != null) {
+        return super.get(name);
+      }
+      if (!(name instanceof String s)) {
+        return null;
+      }
+      // a duplicate name takes the last value
+      var found = -1;
+      for (var i = start + 1; !tape.isEnd(i); i = tape.next(i + 1)) {
+        if (tape.stringEquals(i, s)) {
+          found = i + 1;
+        }
+      }
+      return found == -1 ? null : tape.value(found);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return tape.count(start) == 0;
+    }
+
+    @Override
+    Map<String, Integer> slots() {
+      var slots = this.slots;
+      if (slots == null) {
+        var map = new LinkedHashMap<String, Integer>();
+        for (var i = start + 1; !tape.isEnd(i); i = tape.next(i + 1)) {
+          // a duplicate name keeps its position and takes the last value
+          map.put(tape.string(i), i + 1);
+        }
+        slots = map;
+        this.slots = slots;
+      }
+      return slots;
+    }
+
+    @Override
+    JsonValue value(int slot) {
+      return tape.value(slot);
+    }
+  }
+}
@@ -43,4 +43,10 @@ sealed interface Token {
 
   record Float(long line, long column, double value) implements Token {
   }
+
+  record BigInteger(long line, long column, java.lang.String text) implements Token {
+  }
+
+  record Decimal(long line, long column, java.lang.String text) implements Token {
+  }
 }
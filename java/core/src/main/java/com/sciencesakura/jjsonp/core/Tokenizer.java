@@ -0,0 +1,115 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+/**
+ * A cursor over the tokens of a JSON text, which holds the position and the value of the current token instead of
+ * creating {@link Token}s.
+ */
+interface Tokenizer {
+
+  /**
+   * Reads the next token and returns its kind, or {@code null} if the input ends. The position and the value of the
+   * token are held until the next call.
+   */
+  Kind advance();
+
+  long tokenLine();
+
+  long tokenColumn();
+
+  long longValue();
+
+  double doubleValue();
+
+  /**
+   * Returns the value of the current string token, or the text of the current big integer or decimal token.
+   */
+  String text();
+
+  /**
+   * Returns the value of the current string token as the name of a member, which may be shared with the same names.
+   */
+  default String name() {
+    return text();
+  }
+
+  /**
+   * Returns a view of the value of the current string token, which is valid until the next token is read.
+   */
+  CharSequence textView();
+
+  Token toToken(Kind kind);
+
+  /**
+   * Skips the rest of a value enclosed in the given number of arrays and objects, or the next value if it is 0,
+   * without reading its tokens: only the brackets and quotes are matched, and the strings and numbers are neither
+   * decoded nor checked.
+   *
+   * <p>The default implementation reads the tokens.</p>
+   */
+  default void skip(int depth) {
+    var first = depth == 0;
+    do {
+      var kind = advance();
+      if (kind == null) {
+        throw ParserException.unexpectedEOF();
+      }
+      switch (kind) {
+        case LEFT_BRACKET, LEFT_CURLY -> depth++;
+        case RIGHT_BRACKET, RIGHT_CURLY, COMMA, COLON -> {
+          if (first) {
+            throw ParserException.unexpectedToken(toToken(kind));
+          }
+          if (kind == Kind.RIGHT_BRACKET || kind == Kind.RIGHT_CURLY) {
+            depth--;
+          }
+        }
+        default -> {
+        }
+      }
+      first = false;
+    } while (0 < depth);
+  }
+
+  /**
+   * Skips the next element of an array like {@link #skip(int)}, or reads the end of the array if it comes first.
+   *
+   * <p>The default implementation reads the tokens.</p>
+   *
+   * @return {@code false} if the end of the array has been read instead.
+   */
+  default boolean skipElement() {
+    var kind = advance();
+    if (kind == null) {
+      throw ParserException.unexpectedEOF();
+    }
+    switch (kind) {
+      case RIGHT_BRACKET -> {
+        return false;
+      }
+      case LEFT_BRACKET, LEFT_CURLY -> skip(1);
+      case RIGHT_CURLY, COMMA, COLON -> throw ParserException.unexpectedToken(toToken(kind));
+      default -> {
+      }
+    }
+    return true;
+  }
+
+  enum Kind {
+    LEFT_BRACKET,
+    RIGHT_BRACKET,
+    LEFT_CURLY,
+    RIGHT_CURLY,
+    COLON,
+    COMMA,
+    TRUE,
+    FALSE,
+    NULL,
+    STRING,
+    INTEGER,
+    FLOAT,
+    BIG_INTEGER,
+    DECIMAL,
+  }
+}
@@ -0,0 +1,38 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The result of validating a JSON text.
+ *
+ * @param error  the reason why the JSON text is invalid, or {@code null} if it is valid.
+ * @param line   the line number of the error, or 0 if it is valid.
+ * @param column the column number of the error, or 0 if it is valid.
+ * @see JJson#validate(byte[])
+ */
+public record ValidationResult(@Nullable String error, long line, long column) {
+
+  static final ValidationResult VALID = new ValidationResult(null, 0, 0);
+
+  static ValidationResult of(ParserException e) {
+    return new ValidationResult(e.reason(), e.getLine(), e.getColumn());
+  }
+
+  /**
+   * Returns {@code true} if the JSON text is valid.
+   *
+   * @return {@code true} if the JSON text is valid.
+   */
+  public boolean isValid() {
+    return error == null;
+  }
+
+  @Override
+  @NonNull
+  public String toString() {
+    return isValid() ? "Valid" : "%s at %d:%d".formatted(error, line, column);
+  }
+}
@@ -0,0 +1,25 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+
+/**
+ * A read-only list of the elements of an array, which are built on demand from another representation than
+ * {@link JsonValue}s, e.g. the input itself.
+ *
+ * <p>It is serialized as a list of the built elements, without the representation.</p>
+ */
+abstract class ValueList extends AbstractList<JsonValue> implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  @Serial
+  final Object writeReplace() {
+    return new ArrayList<>(this);
+  }
+}
@@ -0,0 +1,137 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.Set;
+
+/**
+ * A read-only map of the members of an object, whose values are built on demand from another representation than
+ * {@link JsonValue}s, e.g. the input itself.
+ *
+ * <p>The subclasses provide the distinct names in order, each of which is mapped to the slot of its value, and build
+ * the value in a slot. It is serialized as a map of the built values, without the representation.</p>
+ */
+abstract class ValueMap extends AbstractMap<String, JsonValue> implements SequencedMap<String, JsonValue>,
+    Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Returns the distinct names in order, mapped to the slots of their values.
+   */
+  abstract Map<String, Integer> slots();
+
+  /**
+   * Returns the value in the given slot.
+   */
+  abstract JsonValue value(int slot);
+
+  @Override
+  public JsonValue get(Object name) {
+    var slot = slots().get(name);
+    return slot == null ? null : value(slot);
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return slots().containsKey(name);
+  }
+
+  @Override
+  public int size() {
+    return slots().size();
+  }
+
+  @Override
+  public Set<Map.Entry<String, JsonValue>> entrySet() {
+    return new AbstractSet<>() {
+
+      @Override
+      public Iterator<Map.Entry<String, JsonValue>> iterator() {
+        var slots = slots().entrySet().iterator();
+        return new Iterator<>() {
+
+          @Override
+          public boolean hasNext() {
+            return slots.hasNext();
+          }
+
+          @Override
+          public Map.Entry<String, JsonValue> next() {
+            var slot = slots.next();
+            return new Member(slot.getKey(), slot.getValue());
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ValueMap.this.size();
+      }
+    };
+  }
+
+  @Override
+  public SequencedMap<String, JsonValue> reversed() {
+    return new LinkedHashMap<>(this).reversed();
+  }
+
+  @Serial
+  final Object writeReplace() {
+    return new LinkedHashMap<>(this);
+  }
+
+  /**
+   * A member whose value is built when it is first requested.
+   */
+  private final class Member implements Map.Entry<String, JsonValue> {
+
+    private final String name;
+
+    private final int slot;
+
+    Member(String name, int slot) {
+      this.name = name;
+      this.slot = slot;
+    }
+
+    @Override
+    public String getKey() {
+      return name;
+    }
+
+    @Override
+    public JsonValue getValue() {
+      return value(slot);
+    }
+
+    @Override
+    public JsonValue setValue(JsonValue value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Map.Entry<?, ?> e && name.equals(e.getKey()) && getValue().equals(e.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode() ^ getValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return name + '=' + getValue();
+    }
+  }
+}
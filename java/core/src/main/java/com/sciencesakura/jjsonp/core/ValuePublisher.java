@@ -0,0 +1,214 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A publisher of the JSON values parsed from a publisher of byte buffers.
+ *
+ * <p>Each subscriber subscribes to the upstream publisher on its own, and has its own {@link JsonFeeder}. A buffer is
+ * requested from the upstream only when the values parsed from the previous ones have all been delivered and the
+ * subscriber demands more, so at most the values parsed from one buffer wait for the demand.</p>
+ *
+ * <p>All the signals are handled in a drain loop, which is run by one thread at a time: whichever thread signals
+ * while no other thread is running it, with the others only adding their signals for it to handle.</p>
+ */
+final class ValuePublisher implements Flow.Publisher<JsonValue> {
+
+  private final Flow.Publisher<ByteBuffer> upstream;
+
+  private final ParserOptions options;
+
+  // whether the elements of the outermost array are published, rather than the successive values
+  private final boolean elements;
+
+  ValuePublisher(Flow.Publisher<ByteBuffer> upstream, ParserOptions options, boolean elements) {
+    this.upstream = upstream;
+    this.options = options;
+    this.elements = elements;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super JsonValue> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    upstream.subscribe(new Bridge(subscriber));
+  }
+
+  private final class Bridge implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+
+    private final Flow.Subscriber<? super JsonValue> downstream;
+
+    // the values parsed but not delivered yet, which are accessed only in the drain loop
+    private final ArrayDeque<JsonValue> values = new ArrayDeque<>();
+
+    private final JsonFeeder feeder;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> chunks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong demand = new AtomicLong();
+
+    private final AtomicInteger work = new AtomicInteger();
+
+    private Flow.Subscription subscription;
+
+    // accessed only in the drain loop
+    private boolean requested;
+
+    private boolean ended;
+
+    private boolean done;
+
+    private volatile boolean completed;
+
+    private volatile Throwable error;
+
+    private volatile boolean cancelled;
+
+    Bridge(Flow.Subscriber<? super JsonValue> downstream) {
+      this.downstream = downstream;
+      this.feeder = elements ? JsonFeeder.ofElements(values::add, options) : JsonFeeder.of(values::add, options);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      if (this.subscription != null) {
+        subscription.cancel();
+        return;
+      }
+      this.subscription = subscription;
+      downstream.onSubscribe(this);
+      drain();
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      chunks.offer(item);
+      drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      drain();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      drain();
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        error = new IllegalArgumentException("non-positive request: " + n);
+        subscription.cancel();
+      } else {
+        demand.getAndAccumulate(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      if (!cancelled) {
+        cancelled = true;
+        subscription.cancel();
+      }
+    }
+
+    private void drain() {
+      if (work.getAndIncrement() != 0) {
+        return;
+      }
+      var missed = 1;
+      do {
+        if (!done) {
+          try {
+            step();
+          } catch (RuntimeException e) {
+            // thrown by the subscriber, which is considered to have cancelled the subscription (Rule 2.13)
+            done = true;
+            subscription.cancel();
+            throw e;
+          }
+        }
+        missed = work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    /**
+     * Delivers the values demanded, parsing the buffers received as needed, and requests the next buffer if more
+     * values are demanded.
+     */
+    private void step() {
+      while (!cancelled) {
+        var throwable = error;
+        if (throwable != null) {
+          fail(throwable);
+          return;
+        }
+        if (!values.isEmpty()) {
+          if (demand.get() == 0) {
+            return;
+          }
+          demand.decrementAndGet();
+          downstream.onNext(values.poll());
+          continue;
+        }
+        var chunk = chunks.poll();
+        if (chunk != null) {
+          requested = false;
+          try {
+            feeder.feed(chunk);
+          } catch (ParserException e) {
+            fail(e);
+            return;
+          }
+          continue;
+        }
+        if (completed || feeder.finished()) {
+          if (!ended) {
+            ended = true;
+            if (!completed) {
+              // the rest of the input is ignored after the outermost array
+              subscription.cancel();
+            }
+            // the input may end with a value, e.g. a number
+            try {
+              feeder.endOfInput();
+            } catch (ParserException e) {
+              fail(e);
+              return;
+            }
+            continue;
+          }
+          done = true;
+          downstream.onComplete();
+          return;
+        }
+        if (!requested && demand.get() != 0) {
+          requested = true;
+          subscription.request(1);
+        }
+        return;
+      }
+    }
+
+    /**
+     * Terminates the subscriber with the given error, after which the upstream is no longer needed.
+     */
+    private void fail(Throwable throwable) {
+      done = true;
+      subscription.cancel();
+      downstream.onError(throwable);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class DoublesTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "1, 0", "5, -1", "17976931348623157, 292", "49, -325", "22250738585072011, -324", "1, 400", "1, -400",
+      "9007199254740993, 0", "1, 23", "7450580596923828125, -27", "1, -342", "1, 308", "18446744073709551615, 0",
+      "24703282292062328, -340", "24703282292062327, -340",
+  })
+  void convertToNearestDouble(String mantissa, int exponent) {
+    var m = Long.parseUnsignedLong(mantissa);
+    var actual = Doubles.toDouble(m, exponent);
+    assertThat(actual).isEqualTo(Double.parseDouble(mantissa + "e" + exponent));
+  }
+
+  @Test
+  void convertRandomDoubles() {
+    var random = new Random(42);
+    for (var i = 0; i < 100_000; i++) {
+      var expected = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+      if (!Double.isFinite(expected)) {
+        continue;
+      }
+      var decimal = new BigDecimal(Double.toString(expected));
+      var m = decimal.unscaledValue().longValueExact();
+      var actual = Doubles.toDouble(m, -decimal.scale());
+      assertThat(actual).as(decimal.toString()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void convertRandomDecimals() {
+    var random = new Random(42);
+    for (var i = 0; i < 100_000; i++) {
+      var m = random.nextLong() >>> random.nextInt(64);
+      var exponent = random.nextInt(-360, 330);
+      var actual = Doubles.toDouble(m, exponent);
+      var expected = Double.parseDouble(Long.toUnsignedString(m) + "e" + exponent);
+      if (!Double.isNaN(actual)) {
+        assertThat(actual).as(m + "e" + exponent).isEqualTo(expected);
+      }
+    }
+  }
+}
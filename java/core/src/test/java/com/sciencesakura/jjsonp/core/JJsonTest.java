@@ -2,13 +2,28 @@
 
 package com.sciencesakura.jjsonp.core;
 
+import static com.sciencesakura.jjsonp.core.TestFunctions.newChannel;
 import static com.sciencesakura.jjsonp.core.TestFunctions.sequencedMapOf;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.iterable;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class JJsonTest {
 
@@ -151,4 +166,447 @@ class JJsonTest {
       });
     }
   }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 4, 5, 7, 13})
+  void parseWithSmallBuffer(int bufferSize) throws IOException {
+    try (var stream = getClass().getResourceAsStream("/object-01.json")) {
+      var bytes = stream.readAllBytes();
+      var expected = JJson.parse(bytes);
+      try (var ch = TestFunctions.newChannel(bytes)) {
+        assertThat(JJson.parse(ch, bufferSize)).isEqualTo(expected).isPresent();
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/array-01.json", "/object-01.json"})
+  void parseWithStructuralIndex(String name) throws IOException {
+    try (var stream = getClass().getResourceAsStream(name)) {
+      var bytes = stream.readAllBytes();
+      var expected = JJson.parse(bytes);
+      var options = ParserOptions.DEFAULT.withStructuralIndex(true);
+      assertThat(JJson.parse(bytes, 0, bytes.length, options)).isEqualTo(expected).isPresent();
+    }
+  }
+
+  @Test
+  void parseDeeplyNestedValues() throws IOException {
+    var depth = 100_000;
+    var input = "[{\"a\":".repeat(depth) + "1" + "}]".repeat(depth);
+    var actual = JJson.parse(input).orElseThrow();
+    for (var i = 0; i < depth; i++) {
+      actual = ((JsonObject) ((JsonArray) actual).get(0)).get("a");
+    }
+    assertThat(actual).isEqualTo(new JsonInteger(1));
+  }
+
+  @Test
+  void throwExceptionWhenMaxDepthIsExceeded() throws IOException {
+    var options = ParserOptions.DEFAULT.withMaxDepth(3);
+    var bytes = "[[{\"a\": [1]}]]".getBytes(StandardCharsets.UTF_8);
+    assertThat(JJson.parse("[[{\"a\": 1}]]".getBytes(StandardCharsets.UTF_8), 0, 12, options)).isPresent();
+    assertThatThrownBy(() -> JJson.parse(bytes, 0, bytes.length, options))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Maximum depth of 3 exceeded at 1:9");
+  }
+
+  @Test
+  void streamArray() throws IOException {
+    var ch = newChannel("[1, {\"a\": [true]}, \"x\", [], null]");
+    try (var elements = JJson.streamArray(ch)) {
+      assertThat(elements).containsExactly(
+          new JsonInteger(1),
+          new JsonObject(sequencedMapOf("a", new JsonArray(JsonBool.TRUE))),
+          new JsonString("x"),
+          JsonArray.EMPTY,
+          JsonNull.INSTANCE
+      );
+    }
+    assertThat(ch.isOpen()).isFalse();
+  }
+
+  @Test
+  void streamArrayLazily() throws IOException {
+    // the elements after the second one are never read
+    var ch = newChannel("[{\"a\": 1}, [2], x" + " ".repeat(100_000));
+    try (var elements = JJson.streamArray(ch, 16, ParserOptions.DEFAULT)) {
+      assertThat(elements.limit(2)).containsExactly(
+          new JsonObject(sequencedMapOf("a", new JsonInteger(1))),
+          new JsonArray(new JsonInteger(2))
+      );
+    }
+    try (var elements = JJson.streamArray(newChannel("[3, x"))) {
+      assertThat(elements.findFirst()).contains(new JsonInteger(3));
+    }
+  }
+
+  @Test
+  void streamEmptyArray() throws IOException {
+    try (var elements = JJson.streamArray(newChannel("[]"))) {
+      assertThat(elements).isEmpty();
+    }
+    try (var elements = JJson.streamArray(newChannel(""))) {
+      assertThat(elements).isEmpty();
+    }
+  }
+
+  @Test
+  void throwExceptionForStreamOfNonArray() throws IOException {
+    try (var elements = JJson.streamArray(newChannel("{\"a\": 1}"))) {
+      assertThatThrownBy(elements::toList).hasMessage("Unexpected token 'LeftCurly' at 1:1");
+    }
+    try (var elements = JJson.streamArray(newChannel("[1, 2"))) {
+      assertThatThrownBy(elements::toList).hasMessage("Unexpected end of input");
+    }
+  }
+
+  @Test
+  void parseAll() throws IOException {
+    var ch = newChannel("{\"a\": 1}{\"b\": [2]} [3]\n\"x\"\t4 5.0 null");
+    try (var values = JJson.parseAll(ch)) {
+      assertThat(values).containsExactly(
+          new JsonObject(sequencedMapOf("a", new JsonInteger(1))),
+          new JsonObject(sequencedMapOf("b", new JsonArray(new JsonInteger(2)))),
+          new JsonArray(new JsonInteger(3)),
+          new JsonString("x"),
+          new JsonInteger(4),
+          new JsonFloat(5.0),
+          JsonNull.INSTANCE
+      );
+    }
+    assertThat(ch.isOpen()).isFalse();
+  }
+
+  @Test
+  void parseAllAcrossBuffers() throws IOException {
+    var input = "{\"value\": 12345}\n".repeat(1000);
+    try (var values = JJson.parseAll(newChannel(input), 16, ParserOptions.DEFAULT)) {
+      assertThat(values).hasSize(1000).containsOnly(new JsonObject(sequencedMapOf("value", new JsonInteger(12345))));
+    }
+  }
+
+  @Test
+  void parseAllLazily() throws IOException {
+    try (var values = JJson.parseAll(newChannel("[1] [2] x"))) {
+      assertThat(values.limit(2)).containsExactly(new JsonArray(new JsonInteger(1)), new JsonArray(new JsonInteger(2)));
+    }
+  }
+
+  @Test
+  void parseAllEmpty() throws IOException {
+    try (var values = JJson.parseAll(newChannel(""))) {
+      assertThat(values).isEmpty();
+    }
+    try (var values = JJson.parseAll(newChannel(" \n "))) {
+      assertThat(values).isEmpty();
+    }
+  }
+
+  @Test
+  void throwExceptionForInvalidValueOfMany() throws IOException {
+    try (var values = JJson.parseAll(newChannel("[1]\n{\"a\": 2}\n[3 x]"))) {
+      assertThatThrownBy(values::toList).hasMessage("Unknown token 'x' at 3:4");
+    }
+    try (var values = JJson.parseAll(newChannel("[1] [2"))) {
+      assertThatThrownBy(values::toList).hasMessage("Unexpected end of input");
+    }
+  }
+
+  @Test
+  void parseParallel(@TempDir Path dir) throws IOException {
+    var json = new StringBuilder("[");
+    for (var i = 0; i < 300_000; i++) {
+      json.append(i == 0 ? "" : ", ").append("{\"id\": ").append(i).append(", \"name\": \"[\\\"").append(i)
+          .append("\\\", ]\"}");
+    }
+    var file = Files.writeString(dir.resolve("large.json"), json.append(']'));
+    var actual = JJson.parseParallel(file);
+    assertThat(actual).isEqualTo(JJson.parse(file));
+    assertThat(actual).get().extracting(v -> ((JsonArray) v).size()).isEqualTo(300_000);
+  }
+
+  @Test
+  void throwExceptionForInvalidFileInParallel(@TempDir Path dir) throws IOException {
+    var file = Files.writeString(dir.resolve("invalid.json"), "[" + "1,\n".repeat(1_000_000) + "x]");
+    assertThatThrownBy(() -> JJson.parseParallel(file))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unknown token 'x' at 1000001:1");
+  }
+
+  @Test
+  void parseLines(@TempDir Path dir) throws IOException {
+    var file = Files.writeString(dir.resolve("lines.jsonl"), "{\"a\": 1}\r\n\n  [2, 3]\n\"x\"");
+    try (var values = JJson.parseLines(file)) {
+      assertThat(values).containsExactly(
+          new JsonObject(sequencedMapOf("a", new JsonInteger(1))),
+          new JsonArray(new JsonInteger(2), new JsonInteger(3)),
+          new JsonString("x")
+      );
+    }
+  }
+
+  @Test
+  void parseLinesInParallel(@TempDir Path dir) throws IOException {
+    var lines = new ArrayList<String>();
+    for (var i = 0; i < 50_000; i++) {
+      lines.add("{\"id\": %d, \"tags\": [\"t%d\"]}".formatted(i, i % 7));
+    }
+    var file = Files.write(dir.resolve("lines.jsonl"), lines);
+    List<JsonValue> expected;
+    try (var values = JJson.parseLines(file)) {
+      expected = values.toList();
+    }
+    assertThat(expected).hasSize(lines.size());
+    try (var values = JJson.parseLines(file)) {
+      assertThat(values.parallel().toList()).isEqualTo(expected);
+    }
+    try (var values = JJson.parseLines(file)) {
+      assertThat(values.parallel().unordered().toList()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
+  @Test
+  void reportLineNumberInFileWhenParsingLinesInParallel(@TempDir Path dir) throws IOException {
+    var lines = new ArrayList<String>();
+    for (var i = 0; i < 50_000; i++) {
+      lines.add(i == 45_678 ? "{\"id\": x}" : "{\"id\": %d}".formatted(i));
+    }
+    var file = Files.write(dir.resolve("lines.jsonl"), lines);
+    try (var values = JJson.parseLines(file)) {
+      assertThatThrownBy(() -> values.parallel().toList()).hasMessage("Unknown token 'x' at 45679:8");
+    }
+  }
+
+  @Test
+  void throwExceptionForLineContainingMultipleValues(@TempDir Path dir) throws IOException {
+    var file = Files.writeString(dir.resolve("lines.jsonl"), "1\n2 3\n");
+    try (var values = JJson.parseLines(file)) {
+      assertThatThrownBy(values::toList).hasMessage("Unexpected token 'Integer' at 2:3");
+    }
+  }
+
+  @Test
+  void parseWithHandler() throws IOException {
+    var input = "{\"a\": [1, -2.5, \"x\u00e9\", 18446744073709551616], \"b\": {\"c\": true, \"d\": false}, \"e\": null}";
+    var handler = new RecordingHandler();
+    try (var ch = newChannel(input)) {
+      JJson.parse(ch, 4, handler);
+    }
+    assertThat(handler.calls).containsExactly(
+        "startObject", "name:a", "startArray", "long:1", "double:-2.5", "string:x\u00e9",
+        "double:1.8446744073709552E19", "endArray",
+        "name:b", "startObject", "name:c", "boolean:true", "name:d", "boolean:false", "endObject",
+        "name:e", "null", "endObject"
+    );
+  }
+
+  @Test
+  void parseEmptyInputWithHandler() {
+    var handler = new RecordingHandler();
+    JJson.parse(" ".getBytes(StandardCharsets.UTF_8), handler);
+    assertThat(handler.calls).isEmpty();
+  }
+
+  @Test
+  void throwExceptionForInvalidJsonWithHandler() {
+    var handler = new RecordingHandler();
+    assertThatThrownBy(() -> JJson.parse("[1 2]".getBytes(StandardCharsets.UTF_8), handler))
+        .hasMessage("Unexpected token 'Integer' at 1:4");
+    assertThat(handler.calls).containsExactly("startArray", "long:1");
+  }
+
+  @Test
+  void parseIntegerOutOfRangeOfLong() throws IOException {
+    var actual = JJson.parse("[9223372036854775807, 9223372036854775808, -123456789012345678901234567890]");
+    assertThat(actual).contains(new JsonArray(
+        new JsonInteger(Long.MAX_VALUE),
+        new JsonBigInteger(new BigInteger("9223372036854775808")),
+        new JsonBigInteger(new BigInteger("-123456789012345678901234567890"))
+    ));
+  }
+
+  @Test
+  void parseExactDecimals() throws IOException {
+    var bytes = "[0.1, 3.14159265358979323846264338327950288, -1e-400, 42]".getBytes(StandardCharsets.UTF_8);
+    var options = ParserOptions.DEFAULT.withExactDecimals(true);
+    var actual = JJson.parse(bytes, 0, bytes.length, options);
+    assertThat(actual).contains(new JsonArray(
+        new JsonDecimal(new BigDecimal("0.1")),
+        new JsonDecimal(new BigDecimal("3.14159265358979323846264338327950288")),
+        new JsonDecimal(new BigDecimal("-1e-400")),
+        new JsonInteger(42)
+    ));
+    assertThat(actual.orElseThrow().toString()).isEqualTo("[0.1,3.14159265358979323846264338327950288,-1e-400,42]");
+  }
+
+  @Test
+  void reportPositionWithStructuralIndex() {
+    var bytes = "[\n  1,\n          2,\n  3x]".getBytes(StandardCharsets.UTF_8);
+    var options = ParserOptions.DEFAULT.withStructuralIndex(true);
+    assertThatThrownBy(() -> JJson.parse(bytes, 0, bytes.length, options))
+        .hasMessage("Unknown token 'x' at 4:4");
+  }
+
+  @Test
+  void parseFile() throws IOException, URISyntaxException {
+    var path = Path.of(getClass().getResource("/array-01.json").toURI());
+    try (var stream = getClass().getResourceAsStream("/array-01.json")) {
+      var expected = JJson.parse(stream, 1024);
+      assertThat(JJson.parse(path)).isEqualTo(expected).isPresent();
+    }
+  }
+
+  @Test
+  void parseEmptyFile(@TempDir Path dir) throws IOException {
+    var path = Files.createFile(dir.resolve("empty.json"));
+    assertThat(JJson.parse(path)).isEmpty();
+  }
+
+  @Test
+  void parseByteArraySlice() throws IOException {
+    var bytes = "xx[1,\"foo\"]yy".getBytes(StandardCharsets.UTF_8);
+    var json = JJson.parse(bytes, 2, 9);
+    assertThat(json).contains(new JsonArray(new JsonInteger(1), new JsonString("foo")));
+  }
+
+  @Test
+  void throwExceptionForOutOfBoundsSlice() {
+    var bytes = "[1]".getBytes(StandardCharsets.UTF_8);
+    assertThatThrownBy(() -> JJson.parse(bytes, 1, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void parseHeapByteBuffer() throws IOException {
+    var buffer = ByteBuffer.wrap("xx{\"a\":true}".getBytes(StandardCharsets.UTF_8)).position(2);
+    var json = JJson.parse(buffer);
+    assertThat(json).contains(new JsonObject(sequencedMapOf("a", JsonBool.TRUE)));
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Test
+  void parseDirectByteBuffer() throws IOException {
+    var bytes = "[null,\"こんにちは\"]".getBytes(StandardCharsets.UTF_8);
+    var buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    var json = JJson.parse(buffer);
+    assertThat(json).contains(new JsonArray(JsonNull.INSTANCE, new JsonString("こんにちは")));
+  }
+
+  @Test
+  void parseDirectByteBuffersInTurn() throws IOException {
+    var text = "x".repeat(20_000);
+    var inputs = new String[] {"[1, \"" + text + "\"]", "[1, \"", "{\"a\": null}"};
+    var buffers = new ByteBuffer[inputs.length];
+    for (var i = 0; i < inputs.length; i++) {
+      var bytes = inputs[i].getBytes(StandardCharsets.UTF_8);
+      buffers[i] = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+    assertThat(JJson.parse(buffers[0])).contains(new JsonArray(new JsonInteger(1), new JsonString(text)));
+    assertThatThrownBy(() -> JJson.parse(buffers[1]))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected end of input at 1:6");
+    assertThat(JJson.parse(buffers[2])).contains(new JsonObject(sequencedMapOf("a", JsonNull.INSTANCE)));
+    assertThat(JJson.parse(buffers[2].asReadOnlyBuffer()))
+        .contains(new JsonObject(sequencedMapOf("a", JsonNull.INSTANCE)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"a\": [1, -2.5e-3, 12345678901234567890, 0.1e400, \"\\u3042\\n\", true, false, null], \"b\": {}}",
+      " \"こんにちは\" \n",
+      "-0",
+  })
+  void validateValidInput(String input) throws IOException {
+    assertThat(JJson.validate(input.getBytes(StandardCharsets.UTF_8))).isEqualTo(ValidationResult.VALID)
+        .returns(true, ValidationResult::isValid)
+        .hasToString("Valid");
+    try (var ch = newChannel(input)) {
+      assertThat(JJson.validate(ch).isValid()).isTrue();
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "''                    | Unexpected end of input   | 1 | 1",
+      "'  '                  | Unexpected end of input   | 1 | 3",
+      "[1, 2                 | Unexpected end of input   | 1 | 6",
+      "{\"a\": 1 2}            | Unexpected token 'Integer' | 1 | 9",
+      "[1.]                  | Unexpected character ']'  | 1 | 4",
+      "\"\\x\"                | Unexpected character 'x'  | 1 | 3",
+      "[1] [2]               | Unexpected token 'LeftBracket' | 1 | 5",
+      "{\"a\" 1}              | Unexpected token 'Integer' | 1 | 6",
+  })
+  void validateInvalidInput(String input, String error, long line, long column) throws IOException {
+    var expected = new ValidationResult(error, line, column);
+    assertThat(JJson.validate(input.getBytes(StandardCharsets.UTF_8))).isEqualTo(expected)
+        .returns(false, ValidationResult::isValid)
+        .hasToString(error + " at " + line + ":" + column);
+    try (var ch = newChannel(input)) {
+      assertThat(JJson.validate(ch, 4, ParserOptions.DEFAULT)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void validateWithOptions() {
+    var bytes = new byte[] {'[', '"', (byte) 0xC0, (byte) 0xAF, '"', ']'};
+    assertThat(JJson.validate(bytes)).isEqualTo(new ValidationResult("Invalid UTF-8 byte 0xC0", 1, 3));
+    assertThat(JJson.validate(bytes, ParserOptions.DEFAULT)).isEqualTo(ValidationResult.VALID);
+    assertThat(JJson.validate("[[[]]]".getBytes(StandardCharsets.UTF_8), ParserOptions.DEFAULT.withMaxDepth(2)))
+        .isEqualTo(new ValidationResult("Maximum depth of 2 exceeded", 1, 3));
+  }
+
+  private static final class RecordingHandler implements JsonHandler {
+
+    final List<String> calls = new ArrayList<>();
+
+    @Override
+    public void startObject() {
+      calls.add("startObject");
+    }
+
+    @Override
+    public void endObject() {
+      calls.add("endObject");
+    }
+
+    @Override
+    public void startArray() {
+      calls.add("startArray");
+    }
+
+    @Override
+    public void endArray() {
+      calls.add("endArray");
+    }
+
+    @Override
+    public void name(CharSequence name) {
+      calls.add("name:" + name);
+    }
+
+    @Override
+    public void value(CharSequence value) {
+      calls.add("string:" + value);
+    }
+
+    @Override
+    public void value(long value) {
+      calls.add("long:" + value);
+    }
+
+    @Override
+    public void value(double value) {
+      calls.add("double:" + value);
+    }
+
+    @Override
+    public void value(boolean value) {
+      calls.add("boolean:" + value);
+    }
+
+    @Override
+    public void nullValue() {
+      calls.add("null");
+    }
+  }
 }
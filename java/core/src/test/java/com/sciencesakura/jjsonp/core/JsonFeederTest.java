@@ -0,0 +1,137 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonFeederTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 5, 7, 64, 100_000})
+  void parseChunks(int chunkSize) throws IOException {
+    var values = new ArrayList<JsonValue>();
+    var expected = new ArrayList<JsonValue>();
+    var feeder = JsonFeeder.of(values::add);
+    for (var name : new String[] {"/array-01.json", "/object-01.json"}) {
+      try (var stream = getClass().getResourceAsStream(name)) {
+        var bytes = stream.readAllBytes();
+        expected.add(JJson.parse(bytes).orElseThrow());
+        for (var i = 0; i < bytes.length; i += chunkSize) {
+          feeder.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+      }
+    }
+    feeder.endOfInput();
+    assertThat(values).isEqualTo(expected);
+  }
+
+  @Test
+  void passValuesAsSoonAsComplete() {
+    var values = new ArrayList<JsonValue>();
+    var feeder = JsonFeeder.of(values::add);
+    feed(feeder, "[1, 2");
+    assertThat(values).isEmpty();
+    feed(feeder, "3] {\"a\\u30");
+    assertThat(values).containsExactly(new JsonArray(new JsonInteger(1), new JsonInteger(23)));
+    feed(feeder, "42\": \"い\"} 1");
+    assertThat(values).hasSize(2).last().isEqualTo(new JsonObject(TestFunctions.sequencedMapOf(
+        "aあ", new JsonString("い"))));
+    feed(feeder, "2");
+    assertThat(values).hasSize(2);
+    feeder.endOfInput();
+    assertThat(values).hasSize(3).last().isEqualTo(new JsonInteger(12));
+  }
+
+  @Test
+  void resumeInMultibyteCharacter() {
+    var values = new ArrayList<JsonValue>();
+    var feeder = JsonFeeder.of(values::add, ParserOptions.DEFAULT.withStrictUtf8(true));
+    var bytes = "\"👋あ\"".getBytes(StandardCharsets.UTF_8);
+    for (var b : bytes) {
+      feeder.feed(ByteBuffer.wrap(new byte[] {b}));
+    }
+    feeder.endOfInput();
+    assertThat(values).containsExactly(new JsonString("👋あ"));
+  }
+
+  @Test
+  void callBackHandler() {
+    var calls = new ArrayList<String>();
+    var feeder = JsonFeeder.of(new JsonHandler() {
+
+      @Override
+      public void startObject() {
+        calls.add("{");
+      }
+
+      @Override
+      public void endObject() {
+        calls.add("}");
+      }
+
+      @Override
+      public void name(CharSequence name) {
+        calls.add("name:" + name);
+      }
+
+      @Override
+      public void value(long value) {
+        calls.add("long:" + value);
+      }
+    });
+    feed(feeder, "{\"ab");
+    assertThat(calls).containsExactly("{");
+    feed(feeder, "c\": 1");
+    assertThat(calls).containsExactly("{", "name:abc");
+    feed(feeder, "0}");
+    assertThat(calls).containsExactly("{", "name:abc", "long:10", "}");
+    feeder.endOfInput();
+  }
+
+  @Test
+  void throwExceptionForInvalidInput() {
+    var values = new ArrayList<JsonValue>();
+    var feeder = JsonFeeder.of(values::add);
+    feed(feeder, "[1]\n");
+    assertThatThrownBy(() -> feed(feeder, "[2, ]"))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected token 'RightBracket' at 2:5");
+    assertThat(values).containsExactly(new JsonArray(new JsonInteger(1)));
+    assertThatThrownBy(() -> feed(feeder, "[3]")).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(feeder::endOfInput).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void throwExceptionForIncompleteInput() {
+    var feeder = JsonFeeder.of(value -> {
+    });
+    feed(feeder, "{\"a\": [");
+    assertThatThrownBy(feeder::endOfInput)
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected end of input");
+  }
+
+  @Test
+  void acceptEmptyInput() {
+    var values = new ArrayList<JsonValue>();
+    var feeder = JsonFeeder.of(values::add);
+    feed(feeder, "");
+    feed(feeder, " \n ");
+    feeder.endOfInput();
+    assertThat(values).isEmpty();
+    assertThatThrownBy(() -> feed(feeder, "1")).isInstanceOf(IllegalStateException.class);
+  }
+
+  private static void feed(JsonFeeder feeder, String chunk) {
+    feeder.feed(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,107 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static com.sciencesakura.jjsonp.core.TestFunctions.newChannel;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class JsonParserTest {
+
+  @Test
+  void parseEmptyBeforeReset() {
+    assertThat(JsonParser.of().parse()).isEmpty();
+  }
+
+  @Test
+  void reuseForInputs() throws IOException {
+    var parser = JsonParser.of();
+    assertThat(parser.reset(bytes("{\"a\": [1, \"b\\u3042\"]}")).parse()).hasValue(new JsonObject(
+        TestFunctions.sequencedMapOf("a", new JsonArray(new JsonInteger(1), new JsonString("bあ")))));
+    assertThat(parser.parse()).isEmpty();
+    assertThat(parser.reset(bytes("xx[true]xx"), 2, 6).parse()).hasValue(new JsonArray(JsonBool.TRUE));
+    assertThat(parser.reset(newChannel("\"a somewhat long string\""), 4).parse())
+        .hasValue(new JsonString("a somewhat long string"));
+    assertThat(parser.reset(newChannel("null"), 4).parse()).hasValue(JsonNull.INSTANCE);
+    assertThat(parser.reset(bytes("  ")).parse()).isEmpty();
+  }
+
+  @Test
+  void reuseAfterError() {
+    var parser = JsonParser.of();
+    assertThatThrownBy(() -> parser.reset(bytes("[[1, 2], [3, }")).parse())
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected token 'RightCurly' at 1:14");
+    assertThat(parser.reset(bytes("[[4]]")).parse())
+        .hasValue(new JsonArray(new JsonArray(new JsonInteger(4))));
+    assertThatThrownBy(() -> parser.reset(bytes("\n[1,")).parse())
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected end of input");
+    assertThatThrownBy(() -> parser.reset(bytes("\n]")).parse())
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected token 'RightBracket' at 2:1");
+  }
+
+  @Test
+  void applyOptions() {
+    var parser = JsonParser.of(ParserOptions.DEFAULT.withMaxDepth(1));
+    assertThat(parser.reset(bytes("[1]")).parse()).hasValue(new JsonArray(new JsonInteger(1)));
+    assertThatThrownBy(() -> parser.reset(bytes("[[1]]")).parse())
+        .isInstanceOf(ParserException.class);
+    assertThat(parser.reset(bytes("[2]")).parse()).hasValue(new JsonArray(new JsonInteger(2)));
+  }
+
+  @Test
+  void rejectOutOfBounds() {
+    var parser = JsonParser.of();
+    assertThatThrownBy(() -> parser.reset(bytes("[]"), 1, 2))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void reuseAfterLargeInput() throws IOException {
+    var elements = new StringBuilder("[0");
+    for (var i = 1; i < 100_000; i++) {
+      elements.append(',').append(i);
+    }
+    var array = (JsonArray) JJson.parse(bytes(elements.append(']').toString())).orElseThrow();
+    assertThat(array).hasSize(100_000);
+    var options = ParserOptions.DEFAULT.withMaxDepth(100_000);
+    var nested = bytes("[".repeat(70_000) + "]".repeat(70_000));
+    assertThat(JJson.parse(nested, 0, nested.length, options)).isPresent();
+    assertThat(JJson.parse(bytes("[[1, 2], {\"a\": [3]}]"))).hasValue(new JsonArray(
+        new JsonArray(new JsonInteger(1), new JsonInteger(2)),
+        new JsonObject(TestFunctions.sequencedMapOf("a", new JsonArray(new JsonInteger(3))))));
+  }
+
+  @Test
+  void parseWithPoolConcurrently() throws Exception {
+    var tasks = new ArrayList<Callable<Boolean>>();
+    for (var i = 0; i < 1000; i++) {
+      var n = i;
+      tasks.add(() -> {
+        var options = n % 2 == 0 ? ParserOptions.DEFAULT : ParserOptions.DEFAULT.withStructuralIndex(true);
+        var input = bytes("{\"n\": " + n + "}");
+        var expected = new JsonObject(TestFunctions.sequencedMapOf("n", new JsonInteger(n)));
+        return JJson.parse(input, 0, input.length, options).orElseThrow().equals(expected)
+            && JJson.parse(newChannel("[" + n + "]"), 2).orElseThrow().equals(new JsonArray(new JsonInteger(n)));
+      });
+    }
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (var result : executor.invokeAll(tasks)) {
+        assertThat(result.get()).isTrue();
+      }
+    }
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,131 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static com.sciencesakura.jjsonp.core.TestFunctions.newChannel;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sciencesakura.jjsonp.core.JsonReader.Event;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class JsonReaderTest {
+
+  @Test
+  void readEvents() {
+    var reader = JJson.reader("{\"a\": [1, 2.5, \"x\"], \"b\": {}, \"c\": [], \"d\": [true, false, null]}".getBytes(StandardCharsets.UTF_8));
+    assertThat(events(reader)).containsExactly(
+        Event.START_OBJECT,
+        Event.NAME, Event.START_ARRAY, Event.INTEGER, Event.FLOAT, Event.STRING, Event.END_ARRAY,
+        Event.NAME, Event.START_OBJECT, Event.END_OBJECT,
+        Event.NAME, Event.START_ARRAY, Event.END_ARRAY,
+        Event.NAME, Event.START_ARRAY, Event.TRUE, Event.FALSE, Event.NULL, Event.END_ARRAY,
+        Event.END_OBJECT
+    );
+    assertThatThrownBy(reader::next).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void readValues() throws IOException {
+    try (var ch = newChannel("{\"name\": \"Olá\", \"id\": 9223372036854775807, \"big\": 18446744073709551616,"
+        + " \"pi\": 3.14}")) {
+      var reader = JJson.reader(ch, 4);
+      assertThat(reader.next()).isEqualTo(Event.START_OBJECT);
+      assertThat(reader.next()).isEqualTo(Event.NAME);
+      assertThat(reader.getString()).isEqualTo("name");
+      assertThat(reader.next()).isEqualTo(Event.STRING);
+      assertThat(reader.getString()).isEqualTo("Olá");
+      assertThat(reader.next()).isEqualTo(Event.NAME);
+      assertThat(reader.getString()).isEqualTo("id");
+      assertThat(reader.next()).isEqualTo(Event.INTEGER);
+      assertThat(reader.getLong()).isEqualTo(Long.MAX_VALUE);
+      assertThat(reader.next()).isEqualTo(Event.NAME);
+      assertThat(reader.next()).isEqualTo(Event.INTEGER);
+      assertThatThrownBy(reader::getLong).isInstanceOf(ArithmeticException.class);
+      assertThat(reader.getDouble()).isEqualTo(0x1p64);
+      assertThat(reader.next()).isEqualTo(Event.NAME);
+      assertThat(reader.next()).isEqualTo(Event.FLOAT);
+      assertThat(reader.getDouble()).isEqualTo(3.14);
+      assertThatThrownBy(reader::getString).isInstanceOf(IllegalStateException.class);
+      assertThatThrownBy(reader::getLong).isInstanceOf(IllegalStateException.class);
+      assertThat(reader.next()).isEqualTo(Event.END_OBJECT);
+      assertThat(reader.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  void skipValues() {
+    var reader = JJson.reader("[{\"a\": [1, {\"b\": 2}]}, \"x\", {\"c\": [3], \"d\": 4}]".getBytes(StandardCharsets.UTF_8));
+    assertThat(reader.next()).isEqualTo(Event.START_ARRAY);
+    assertThat(reader.next()).isEqualTo(Event.START_OBJECT);
+    reader.skipValue();
+    assertThat(reader.currentDepth()).isEqualTo(1);
+    assertThat(reader.next()).isEqualTo(Event.STRING);
+    reader.skipValue();
+    assertThat(reader.next()).isEqualTo(Event.START_OBJECT);
+    assertThat(reader.next()).isEqualTo(Event.NAME);
+    reader.skipValue();
+    assertThat(reader.next()).isEqualTo(Event.NAME);
+    assertThat(reader.getString()).isEqualTo("d");
+    assertThat(reader.next()).isEqualTo(Event.INTEGER);
+    assertThat(reader.getLong()).isEqualTo(4);
+    assertThat(reader.next()).isEqualTo(Event.END_OBJECT);
+    assertThat(reader.next()).isEqualTo(Event.END_ARRAY);
+    assertThat(reader.hasNext()).isFalse();
+  }
+
+  @Test
+  void trackDepth() {
+    var reader = JJson.reader("[[{}], 1]".getBytes(StandardCharsets.UTF_8));
+    var depths = new ArrayList<Integer>();
+    while (reader.hasNext()) {
+      reader.next();
+      depths.add(reader.currentDepth());
+    }
+    assertThat(depths).containsExactly(1, 2, 3, 2, 1, 1, 0);
+  }
+
+  @Test
+  void readScalar() {
+    var reader = JJson.reader(" \"foo\" ".getBytes(StandardCharsets.UTF_8));
+    assertThat(events(reader)).containsExactly(Event.STRING);
+    assertThat(reader.getString()).isEqualTo("foo");
+  }
+
+  @Test
+  void readNothingFromEmptyInput() {
+    var reader = JJson.reader("  ".getBytes(StandardCharsets.UTF_8));
+    assertThat(reader.hasNext()).isFalse();
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "[1, 2                | Unexpected end of input",
+      "[1 2]                | Unexpected token 'Integer' at 1:4",
+      "[1, ]                | Unexpected token 'RightBracket' at 1:5",
+      "{\"a\" 1}            | Unexpected token 'Integer' at 1:6",
+      "{\"a\": 1, }         | Unexpected token 'RightCurly' at 1:10",
+      "{1: 2}               | Unexpected token 'Integer' at 1:2",
+      "[1}                  | Unexpected token 'RightCurly' at 1:3",
+      ":                    | Unexpected token 'Colon' at 1:1",
+  })
+  void throwExceptionForInvalidJson(String input, String message) {
+    var reader = JJson.reader(input.getBytes(StandardCharsets.UTF_8));
+    assertThatThrownBy(() -> events(reader)).isInstanceOf(ParserException.class).hasMessage(message);
+  }
+
+  private static List<Event> events(JsonReader reader) {
+    var events = new ArrayList<Event>();
+    while (reader.hasNext()) {
+      events.add(reader.next());
+    }
+    return events;
+  }
+}
@@ -6,6 +6,8 @@ import static com.sciencesakura.jjsonp.core.TestFunctions.sequencedMapOf;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +34,47 @@ class JsonValueTest {
     assertThat(new JsonFloat(0.0)).isLessThan(new JsonFloat(1.0));
   }
 
+  @Test
+  void testOrderOfBigInteger() {
+    assertThat(new JsonBigInteger(BigInteger.TEN)).isGreaterThan(new JsonBigInteger(BigInteger.ONE));
+    assertThat(new JsonBigInteger(BigInteger.ONE)).isLessThan(new JsonBigInteger(BigInteger.TEN));
+  }
+
+  @Test
+  void testOrderOfDecimal() {
+    assertThat(new JsonDecimal(new BigDecimal("1.5"))).isGreaterThan(new JsonDecimal(new BigDecimal("1.25")));
+    assertThat(new JsonDecimal(new BigDecimal("1.25"))).isLessThan(new JsonDecimal(new BigDecimal("1.5")));
+  }
+
+  @Test
+  void testConversionOfBigInteger() {
+    var json = JsonBigInteger.ofText("-18446744073709551616");
+    assertThat(json.value()).isEqualTo(new BigInteger("-18446744073709551616"));
+    assertThat(json.value()).isSameAs(json.value());
+    assertThat(json.doubleValue()).isEqualTo(-0x1p64);
+    assertThat(json.bigDecimalValue()).isEqualTo(new BigDecimal("-18446744073709551616"));
+    assertThatThrownBy(json::longValue).isInstanceOf(ArithmeticException.class);
+    assertThat(json).hasToString("-18446744073709551616");
+  }
+
+  @Test
+  void testConversionOfDecimal() {
+    var json = JsonDecimal.ofText("12.50e1");
+    assertThat(json.value()).isEqualTo(new BigDecimal("12.50e1"));
+    assertThat(json.value()).isSameAs(json.value());
+    assertThat(json.doubleValue()).isEqualTo(125.0);
+    assertThat(json.longValue()).isEqualTo(125L);
+    assertThat(json.bigIntegerValue()).isEqualTo(BigInteger.valueOf(125));
+    assertThatThrownBy(() -> JsonDecimal.ofText("0.5").longValue()).isInstanceOf(ArithmeticException.class);
+    assertThat(json).hasToString("12.50e1");
+  }
+
+  @Test
+  void testEqualityOfDecimal() {
+    assertThat(JsonDecimal.ofText("1.0")).isEqualTo(JsonDecimal.ofText("1.00e0")).hasSameHashCodeAs(JsonDecimal.ofText("1"));
+    assertThat(JsonDecimal.ofText("1.0")).isNotEqualTo(JsonDecimal.ofText("1.01"));
+  }
+
   @Test
   void testOrderOfString() {
     assertThat(new JsonString("B")).isGreaterThan(new JsonString("A"));
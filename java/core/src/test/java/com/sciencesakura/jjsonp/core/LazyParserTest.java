@@ -0,0 +1,185 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LazyParserTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[1, 2, 3]",
+      "  [[1, 2], {\"a\": [3, {\"b\": 4}]}, [], {}, \"x\", true, false, null, 1.5, -2e3]  ",
+      "[\"[\", \"]\", \"{,}\", \"\\\"\", \"\\\\\", \"\\\\\\\"[,\", \"\\u3042\", \"あいう\", \"abcdefghabcdefghabcdefghabcdefgh\"]",
+      "{\"a\": 1, \"b\": [2, 3], \"c\": {\"d\": 4, \"e\": 5}, \"f\": \"g,h\", \"i\": null}",
+      "{\"a\": 1, \"b\": 2, \"a\": 3, \"c\": 4, \"b\": 5}",
+      "{\"\\u3042\": {}, \"a\\nb\": []}",
+      "[12345678901234567890123, 0.1000000000000000000000001, 1e400]",
+      "[1, 2] [3, 4, 5]",
+      "\"abc\" 1",
+      "-12.5",
+      "",
+      "   ",
+  })
+  void parseLikeParser(String input) throws IOException {
+    var bytes = input.getBytes(StandardCharsets.UTF_8);
+    assertThat(JJson.parseLazy(bytes)).isEqualTo(JJson.parse(bytes));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/array-01.json", "/object-01.json"})
+  void parseResource(String name) throws IOException {
+    try (var stream = getClass().getResourceAsStream(name)) {
+      var bytes = stream.readAllBytes();
+      var actual = JJson.parseLazy(bytes).orElseThrow();
+      var expected = JJson.parse(bytes).orElseThrow();
+      assertThat(actual).isEqualTo(expected).hasSameHashCodeAs(expected).hasToString(expected.toString());
+    }
+  }
+
+  @Test
+  void parseOnlyAccessedValues() {
+    var bytes = "{\"a\": [1, x], \"b\": {\"c\": \"d\"}, \"e\": tru}".getBytes(StandardCharsets.UTF_8);
+    var object = (JsonObject) JJson.parseLazy(bytes).orElseThrow();
+    assertThat(object.names()).containsExactly("a", "b", "e");
+    assertThat(object.get("b")).isEqualTo(new JsonObject(TestFunctions.sequencedMapOf("c", new JsonString("d"))));
+    var array = (JsonArray) object.get("a");
+    assertThat(array.get(0)).isEqualTo(new JsonInteger(1));
+    assertThatThrownBy(() -> array.get(1))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unknown token 'x' at 1:11");
+    assertThatThrownBy(() -> object.get("e"))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unknown token 'tru' at 1:37");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"a\": 1 \"b\": 2}",
+      "{\"a\": 1, \"b\": 2,}",
+      "{\"a\": 1, 2}",
+      "{\"a\"\n: 1, \"b\" 2}",
+      "[1, 2,]",
+      "[1, , 2]",
+      "[1, 2",
+      "[1 2]",
+      "\n\n  [1, [2, 3}]",
+      "[\"a\", \"b]",
+      "[1, -]",
+      "{\"a\": [tru]}",
+      "\n\t nul",
+      " \"a\\}\"",
+  })
+  void throwExceptionLikeParser(String input) {
+    var bytes = input.getBytes(StandardCharsets.UTF_8);
+    var expected = catchThrowable(() -> JJson.parse(bytes));
+    assertThatThrownBy(() -> JJson.parseLazy(bytes).orElseThrow().toString())
+        .isInstanceOf(ParserException.class)
+        .hasMessage(expected.getMessage());
+  }
+
+  @Test
+  void throwExceptionRelativeToOffset() {
+    var bytes = "[0, 0]\n[1, \n -]".getBytes(StandardCharsets.UTF_8);
+    var expected = catchThrowable(() -> JJson.parse(bytes, 7, bytes.length - 7));
+    assertThat(expected).hasMessage("Unexpected character ']' at 2:3");
+    assertThatThrownBy(() -> JJson.parseLazy(bytes, 7, bytes.length - 7, ParserOptions.DEFAULT).orElseThrow().toString())
+        .isInstanceOf(ParserException.class)
+        .hasMessage(expected.getMessage());
+  }
+
+  @Test
+  void throwExceptionForTooDeepValue() {
+    var options = ParserOptions.DEFAULT.withMaxDepth(3);
+    var bytes = "[[{\"a\": [1]}]]".getBytes(StandardCharsets.UTF_8);
+    var value = (JsonArray) JJson.parseLazy(bytes, 0, bytes.length, options).orElseThrow();
+    var object = (JsonObject) ((JsonArray) value.get(0)).get(0);
+    assertThatThrownBy(() -> object.get("a"))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Maximum depth of 3 exceeded at 1:9");
+  }
+
+  @Test
+  void shareAcrossThreads() throws Exception {
+    var json = new StringBuilder("[");
+    for (var i = 0; i < 1000; i++) {
+      json.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"tags\": [\"t").append(i).append("\"]}");
+    }
+    var bytes = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    var expected = JJson.parse(bytes).orElseThrow();
+    var array = (JsonArray) JJson.parseLazy(bytes).orElseThrow();
+    try (var executor = Executors.newFixedThreadPool(8)) {
+      var tasks = new ArrayList<Callable<JsonValue>>();
+      for (var t = 0; t < 8; t++) {
+        tasks.add(() -> new JsonArray(array.stream().toList()));
+      }
+      for (var future : executor.invokeAll(tasks)) {
+        assertThat(future.get()).isEqualTo(expected);
+      }
+    }
+    for (var i = 0; i < array.size(); i++) {
+      assertThat(array.get(i)).isSameAs(array.get(i));
+    }
+  }
+
+  @Test
+  void keepFirstScanOfRacingThreads() throws Exception {
+    var bytes = "{\"a\": [{\"b\": 1}], \"c\": \"d\"}".getBytes(StandardCharsets.UTF_8);
+    try (var executor = Executors.newFixedThreadPool(4)) {
+      for (var n = 0; n < 200; n++) {
+        var object = (JsonObject) JJson.parseLazy(bytes).orElseThrow();
+        var start = new CountDownLatch(1);
+        var tasks = new ArrayList<Callable<JsonValue>>();
+        for (var t = 0; t < 4; t++) {
+          tasks.add(() -> {
+            start.await();
+            return ((JsonArray) object.get("a")).get(0);
+          });
+        }
+        var futures = tasks.stream().map(executor::submit).toList();
+        start.countDown();
+        var first = futures.getFirst().get();
+        for (var future : futures) {
+          assertThat(future.get()).isSameAs(first).isSameAs(((JsonArray) object.get("a")).get(0));
+        }
+      }
+    }
+  }
+
+  @Test
+  void serializeAsParsed() throws Exception {
+    var bytes = "{\"a\": [1, {\"b\": null}], \"c\": \"d\"}".getBytes(StandardCharsets.UTF_8);
+    var value = JJson.parseLazy(bytes).orElseThrow();
+    var out = new ByteArrayOutputStream();
+    try (var stream = new ObjectOutputStream(out)) {
+      stream.writeObject(value);
+    }
+    try (var stream = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertThat(stream.readObject()).isEqualTo(JJson.parse(bytes).orElseThrow());
+    }
+  }
+
+  @Test
+  void shareNamesAcrossParts() {
+    var bytes = "[{\"id\": 1}, {\"id\": 2}]".getBytes(StandardCharsets.UTF_8);
+    var array = (JsonArray) JJson.parseLazy(bytes).orElseThrow();
+    var first = ((JsonObject) array.get(0)).names().getFirst();
+    assertThat(((JsonObject) array.get(1)).names().getFirst()).isSameAs(first);
+  }
+}
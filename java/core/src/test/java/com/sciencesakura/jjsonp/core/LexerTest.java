@@ -9,6 +9,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.throwable;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EmptySource;
@@ -106,6 +108,22 @@ class LexerTest {
     }
   }
 
+  @Test
+  void recognizeStringsSpanningBufferBoundaries() throws IOException {
+    var input = """
+        "Hello, World" "Hello\\nWorld" "Olá, Mundo"
+        """;
+    try (var ch = newChannel(input)) {
+      var lexer = new Lexer(ch, 4);
+      var actual = toList(lexer);
+      assertThat(actual).containsExactly(
+          new Token.String(1, 1, "Hello, World"),
+          new Token.String(1, 16, "Hello\nWorld"),
+          new Token.String(1, 31, "Olá, Mundo")
+      );
+    }
+  }
+
   @Test
   void recognizeStringsContainingEscapeSequences() throws IOException {
     var input = """
@@ -177,6 +195,57 @@ class LexerTest {
     }
   }
 
+  @Test
+  void replaceOutOfRangeUTF8ByteSequence() throws IOException {
+    var input = new int[]{0x22, 0x61, 0xF7, 0xBF, 0xBF, 0xBF, 0x62, 0x22};
+    try (var ch = TestFunctions.newChannel(input)) {
+      var lexer = new Lexer(ch, 128);
+      var actual = toList(lexer);
+      assertThat(actual).containsExactly(new Token.String(1, 1, "a\uFFFD\uFFFD\uFFFD\uFFFDb"));
+    }
+  }
+
+  @Test
+  void recognizeLongStringsContainingMultibyteCharacters() throws IOException {
+    var text = "あのイーハトーヴォのすきとおった風、abcdefghijklmnopqrstuvwxyz夏でも底に冷たさをもつ青いそら👋🏻".repeat(20);
+    try (var ch = newChannel('"' + text + '"')) {
+      var lexer = new Lexer(ch, 16);
+      var actual = toList(lexer);
+      assertThat(actual).containsExactly(new Token.String(1, 1, text));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "22 61 80 62 22",
+      "22 61 C0 80 62 22",
+      "22 61 C1 BF 62 22",
+      "22 61 E0 9F BF 62 22",
+      "22 61 ED A0 80 62 22",
+      "22 61 F0 8F BF BF 62 22",
+      "22 61 F4 90 80 80 62 22",
+      "22 61 F5 80 80 80 62 22",
+      "22 61 E3 81 22",
+  })
+  void throwExceptionForInvalidUTF8ByteSequenceInStrictMode(String input) {
+    var bytes = HexFormat.ofDelimiter(" ").parseHex(input);
+    var lexer = new Lexer(new ArraySource(bytes, 0, bytes.length), ParserOptions.DEFAULT.withStrictUtf8(true));
+    assertThatThrownBy(() -> toList(lexer)).hasMessage("Invalid UTF-8 byte 0x%02X at 1:3".formatted(bytes[2]))
+        .asInstanceOf(throwable(ParserException.class))
+        .satisfies(e -> {
+          assertThat(e.getLine()).isEqualTo(1);
+          assertThat(e.getColumn()).isEqualTo(3);
+        });
+  }
+
+  @Test
+  void recognizeValidUTF8ByteSequenceInStrictMode() {
+    var bytes = "\"こんにちは👋🏻\u00E9\"".getBytes(StandardCharsets.UTF_8);
+    var lexer = new Lexer(new ArraySource(bytes, 0, bytes.length), ParserOptions.DEFAULT.withStrictUtf8(true));
+    var actual = toList(lexer);
+    assertThat(actual).containsExactly(new Token.String(1, 1, "こんにちは👋🏻é"));
+  }
+
   @Test
   void throwExceptionForUnterminatedString_1() throws IOException {
     var input = "\"";
@@ -331,6 +400,39 @@ class LexerTest {
     }
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "9223372036854775807", "-9223372036854775808", "00000000000000000000012", "-0",
+      "1.7976931348623157e308", "4.9e-324", "2.2250738585072011e-308", "1e400", "-1e-400", "-0.0",
+      "3.14159265358979323846264338327950288", "0.000000000000000000000000000001234567890123456789",
+      "123456789012345678901234567890e-10", "9007199254740993", "9007199254740993.0", "1e23"
+  })
+  void recognizeNumbersAtTheLimitsOfPrecision(String input) throws IOException {
+    try (var ch = newChannel(input)) {
+      var lexer = new Lexer(ch, 128);
+      var actual = toList(lexer);
+      var expected = input.contains(".") || input.contains("e") ? new Token.Float(1, 1, Double.parseDouble(input))
+          : new Token.Integer(1, 1, Long.parseLong(input));
+      assertThat(actual).containsExactly(expected);
+    }
+  }
+
+  @Test
+  void recognizeNumbersSpanningBufferBoundaries() throws IOException {
+    var input = "12345 -6.789e+10 [0.5]";
+    try (var ch = newChannel(input)) {
+      var lexer = new Lexer(ch, 4);
+      var actual = toList(lexer);
+      assertThat(actual).containsExactly(
+          new Token.Integer(1, 1, 12345),
+          new Token.Float(1, 7, -6.789e+10),
+          new Token.LeftBracket(1, 18),
+          new Token.Float(1, 19, 0.5),
+          new Token.RightBracket(1, 22)
+      );
+    }
+  }
+
   @Test
   void throwExceptionWhenMinusSignIsNotFollowedByDigit() throws IOException {
     try (var ch = newChannel("-")) {
@@ -382,4 +484,47 @@ class LexerTest {
           });
     }
   }
+
+  @Test
+  void skipValues() throws IOException {
+    var input = "{\"a\": [\"]\\\"}\", {\"b\": \"c\"}], \"d\": tru}\n, \"\u3042\u3044\u3046\u3048\u304a\u304b\u304d\", 1";
+    try (var ch = newChannel(input)) {
+      var lexer = new Lexer(ch, 4);
+      lexer.skip(0);
+      assertThat(lexer.advance()).isEqualTo(Tokenizer.Kind.COMMA);
+      assertThat(lexer.tokenLine()).isEqualTo(2);
+      assertThat(lexer.tokenColumn()).isEqualTo(1);
+      lexer.skip(0);
+      assertThat(lexer.advance()).isEqualTo(Tokenizer.Kind.COMMA);
+      assertThat(lexer.tokenColumn()).isEqualTo(12);
+      assertThat(lexer.advance()).isEqualTo(Tokenizer.Kind.INTEGER);
+    }
+  }
+
+  @Test
+  void skipRestOfContainer() throws IOException {
+    try (var ch = newChannel("[1, [2, \"]\"], 3], 4")) {
+      var lexer = new Lexer(ch, 4);
+      lexer.advance();
+      lexer.advance();
+      lexer.skip(1);
+      assertThat(lexer.advance()).isEqualTo(Tokenizer.Kind.COMMA);
+      assertThat(lexer.tokenColumn()).isEqualTo(17);
+    }
+  }
+
+  @Test
+  void throwExceptionWhenSkippingNoValue() throws IOException {
+    try (var ch = newChannel("[1, ]")) {
+      var lexer = new Lexer(ch, 128);
+      lexer.advance();
+      lexer.advance();
+      lexer.advance();
+      assertThatThrownBy(() -> lexer.skip(0)).hasMessage("Unexpected character ']' at 1:5");
+    }
+    try (var ch = newChannel("{\"a\": [1, \"b")) {
+      var lexer = new Lexer(ch, 128);
+      assertThatThrownBy(() -> lexer.skip(0)).hasMessage("Unexpected end of input at 1:13");
+    }
+  }
 }
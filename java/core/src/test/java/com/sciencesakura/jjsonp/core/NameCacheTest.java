@@ -0,0 +1,78 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NameCacheTest {
+
+  @Test
+  void returnCachedName() {
+    var cache = NameCache.of(16);
+    var bytes = "xnamex".getBytes(StandardCharsets.ISO_8859_1);
+    var name = cache.get(bytes, 1, 4);
+    assertThat(name).isEqualTo("name");
+    assertThat(cache.get("name".getBytes(StandardCharsets.ISO_8859_1), 0, 4)).isSameAs(name);
+    assertThat(cache.get("name!".toCharArray(), 4)).isSameAs(name);
+    assertThat(cache.get("nam".toCharArray(), 3)).isEqualTo("nam");
+  }
+
+  @Test
+  void replaceNameInSameSlot() {
+    var cache = NameCache.of(1);
+    var a = cache.get("a".toCharArray(), 1);
+    var b = cache.get("b".toCharArray(), 1);
+    assertThat(b).isEqualTo("b");
+    assertThat(cache.get("a".toCharArray(), 1)).isEqualTo(a).isNotSameAs(a);
+  }
+
+  @Test
+  void notCacheLongName() {
+    var cache = NameCache.of(16);
+    var chars = "a".repeat(65).toCharArray();
+    assertThat(cache.get(chars, 65)).isNotSameAs(cache.get(chars, 65));
+    assertThat(cache.get(chars, 64)).isSameAs(cache.get(chars, 64));
+  }
+
+  @Test
+  void disableCaching() {
+    var cache = NameCache.of(0);
+    var chars = "a".toCharArray();
+    assertThat(cache.get(chars, 1)).isEqualTo("a").isNotSameAs(cache.get(chars, 1));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {-1, (1 << 30) + 1})
+  void rejectInvalidCapacity(int capacity) {
+    assertThatThrownBy(() -> NameCache.of(capacity))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shareNamesInParse() throws IOException {
+    var value = JJson.parse("[{\"id\": 1, \"名前\": 2}, {\"id\": 3, \"名前\": 4}]").orElseThrow();
+    var keys = new ArrayList<String>();
+    for (var element : (JsonArray) value) {
+      keys.addAll(((JsonObject) element).names());
+    }
+    assertThat(keys).containsExactly("id", "名前", "id", "名前");
+    assertThat(keys.get(2)).isSameAs(keys.get(0));
+    assertThat(keys.get(3)).isSameAs(keys.get(1));
+  }
+
+  @Test
+  void shareNamesAcrossParses() throws IOException {
+    var options = ParserOptions.DEFAULT.withNameCache(NameCache.of(64));
+    var first = (JsonObject) JJson.parse("{\"id\": 1}".getBytes(StandardCharsets.UTF_8), 0, 9, options).orElseThrow();
+    var second = (JsonObject) JJson.parse(TestFunctions.newChannel("{\"id\": 2}"), 4, options).orElseThrow();
+    assertThat(second.names().getFirst()).isSameAs(first.names().getFirst());
+  }
+}
@@ -0,0 +1,107 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelParserTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16]",
+      "  [[1, 2], {\"a\": [3, {\"b\": 4}]}, [], {}, \"x\", true, false, null, 1.5, -2e3]  ",
+      "[\"[\", \"]\", \"{,}\", \"\\\"\", \"\\\\\", \"\\\\\\\"[,\", \"\\u3042\", \"あいう\"]",
+      "{\"a\": 1, \"b\": [2, 3], \"c\": {\"d\": 4, \"e\": 5}, \"f\": \"g,h\", \"i\": null}",
+      "{\"a\": 1, \"b\": 2, \"a\": 3, \"c\": 4, \"b\": 5}",
+      "[12345678901234567890123, 0.1000000000000000000000001, 1e400]",
+      "[1, 2] [3, 4, 5]",
+      "\"a, b, c, d, e, f, g, h, i, j, k, l\"",
+      "[[[[1, 2, 3, 4, 5, 6, 7, 8, 9, 10]]]]",
+      "",
+      "   ",
+  })
+  void parseLikeSequentialParser(String input) {
+    assertThat(parse(input, 4)).isEqualTo(parseSequentially(input));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/array-01.json", "/object-01.json"})
+  void parseResource(String name) throws IOException {
+    try (var stream = getClass().getResourceAsStream(name)) {
+      var bytes = stream.readAllBytes();
+      var actual = new ParallelParser(MemorySegment.ofArray(bytes), ParserOptions.DEFAULT, 16).parse();
+      assertThat(actual).isEqualTo(JJson.parse(bytes));
+    }
+  }
+
+  @Test
+  void parseEscapeSequencesAcrossRanges() {
+    for (var backslashes = 0; backslashes < 6; backslashes++) {
+      var element = "\"" + "\\\\".repeat(backslashes) + "\\\"[,{\"";
+      var input = "[" + String.join(", ", Collections.nCopies(20, element)) + "]";
+      for (var minRangeSize = 3; minRangeSize < 12; minRangeSize++) {
+        assertThat(parse(input, minRangeSize)).as(input).isEqualTo(parseSequentially(input));
+      }
+    }
+  }
+
+  @Test
+  void parseWithOptions() throws IOException {
+    var input = "[0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9, 1.0]";
+    var options = ParserOptions.DEFAULT.withExactDecimals(true);
+    var actual = new ParallelParser(segment(input), options, 4).parse();
+    assertThat(actual).get().isEqualTo(JJson.parse(input.getBytes(StandardCharsets.UTF_8), 0, input.length(),
+        options).orElseThrow());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[1, 2, 3, 4, 5, 6, 7, 8, x, 10, 11, 12, 13, 14, 15, 16]",
+      "[1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16",
+      "[1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, 11, 12, 13, 14, 15, 16]",
+      "{\"a\": 1, \"b\": 2, \"c\": 3, \"d\" 4, \"e\": 5, \"f\": 6}",
+      "[1, 2, 3, 4, 5, 6, 7, 8, \\, 10, 11, 12, 13, 14, 15, 16]",
+  })
+  void throwExceptionLikeSequentialParser(String input) {
+    var expected = catchThrowable(() -> parseSequentially(input));
+    assertThatThrownBy(() -> parse(input, 4))
+        .isInstanceOf(ParserException.class)
+        .hasMessage(expected.getMessage());
+  }
+
+  @Test
+  void throwExceptionForTooDeepValue() {
+    var input = "[1, 2, 3, 4, 5, 6, 7, 8, [[9]], 10, 11, 12, 13, 14, 15, 16]";
+    var options = ParserOptions.DEFAULT.withMaxDepth(2);
+    assertThatThrownBy(() -> new ParallelParser(segment(input), options, 4).parse())
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Maximum depth of 2 exceeded at 1:27");
+  }
+
+  private static Optional<JsonValue> parse(String input, long minRangeSize) {
+    return new ParallelParser(segment(input), ParserOptions.DEFAULT, minRangeSize).parse();
+  }
+
+  private static Optional<JsonValue> parseSequentially(String input) {
+    try {
+      return JJson.parse(input.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static MemorySegment segment(String input) {
+    return MemorySegment.ofArray(input.getBytes(StandardCharsets.UTF_8));
+  }
+}
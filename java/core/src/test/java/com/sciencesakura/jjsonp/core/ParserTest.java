@@ -7,6 +7,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.throwable;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -374,4 +375,38 @@ class ParserTest {
           assertThat(e.getColumn()).isEqualTo(12);
         });
   }
+
+  @Test
+  void shareIdenticalValues() {
+    var input = "[{\"a\": [1, {}], \"s\": \"x\"}, {\"a\": [1, {}], \"s\": \"x\"}, [1, {}], \"x\", {\"s\": \"x\"}]";
+    var actual = (JsonArray) parse(input, ParserOptions.DEFAULT.withDeduplication(true));
+    assertThat(actual).isEqualTo(parse(input, ParserOptions.DEFAULT));
+    var first = (JsonObject) actual.get(0);
+    assertThat(actual.get(1)).isSameAs(first);
+    assertThat(actual.get(2)).isSameAs(first.get("a"));
+    assertThat(actual.get(3)).isSameAs(first.get("s"));
+    assertThat(((JsonObject) actual.get(4)).get("s")).isSameAs(first.get("s"));
+  }
+
+  @Test
+  void notShareValuesWithNumbersAsWritten() {
+    var options = ParserOptions.DEFAULT.withDeduplication(true).withExactDecimals(true);
+    var actual = (JsonArray) parse("[[1.0], [1.00], {\"a\": [1.0]}, {\"a\": [1.00]}, [0100000000000000000000], [100000000000000000000]]", options);
+    assertThat(actual).hasToString("[[1.0],[1.00],{\"a\":[1.0]},{\"a\":[1.00]},[0100000000000000000000],[100000000000000000000]]");
+    assertThat(actual.get(5)).isEqualTo(actual.get(4)).isNotSameAs(actual.get(4));
+    assertThat(actual.get(1)).isEqualTo(actual.get(0)).isNotSameAs(actual.get(0));
+    assertThat(actual.get(3)).isEqualTo(actual.get(2)).isNotSameAs(actual.get(2));
+  }
+
+  @Test
+  void notShareValuesByDefault() {
+    var actual = (JsonArray) parse("[[1], [1]]", ParserOptions.DEFAULT);
+    assertThat(actual.get(1)).isEqualTo(actual.get(0)).isNotSameAs(actual.get(0));
+  }
+
+  private static JsonValue parse(String input, ParserOptions options) {
+    var bytes = input.getBytes(StandardCharsets.UTF_8);
+    var reader = new JsonReader(new Lexer(new ArraySource(bytes, 0, bytes.length), options), options);
+    return new Parser(reader, options).parse().orElseThrow();
+  }
 }
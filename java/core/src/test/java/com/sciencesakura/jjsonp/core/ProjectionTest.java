@@ -0,0 +1,177 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static com.sciencesakura.jjsonp.core.TestFunctions.newChannel;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ProjectionTest {
+
+  private static final String INPUT = """
+      {
+        "user": {"id": 42, "name": "\\u3042\\"}", "tags": ["a", "b"]},
+        "items": [
+          {"price": 1.5, "name": "x", "meta": {"price": 0}},
+          {"name": "y", "price": 2},
+          {"price": [3, 4]},
+          5
+        ],
+        "a/b": {"c~d": true},
+        "user": {"id": 43, "name": "z"}
+      }
+      """;
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "/user/id                       | {\"user\": {\"id\": 43}}",
+      "/user/id, /user/tags/1         | {\"user\": {\"id\": 43}}",
+      "/items/*/price                 | {\"items\": [{\"price\": 1.5}, {\"price\": 2}, {\"price\": [3, 4]}]}",
+      "/items/1                       | {\"items\": [{\"name\": \"y\", \"price\": 2}]}",
+      "/items/0/name, /items/*/price  | {\"items\": [{\"price\": 1.5, \"name\": \"x\"}, {\"price\": 2}, {\"price\": [3, 4]}]}",
+      "/items/*/price/0               | {\"items\": [{}, {}, {\"price\": [3]}]}",
+      "/items/*/meta/*                | {\"items\": [{\"meta\": {\"price\": 0}}, {}, {}]}",
+      "/a~1b/c~0d                     | {\"a/b\": {\"c~d\": true}}",
+      "/nothing                       | {}",
+  })
+  void parseSelectedValues(String paths, String expected) throws IOException {
+    var projection = Projection.of(paths.split(", "));
+    var actual = JJson.parse(INPUT.getBytes(StandardCharsets.UTF_8), projection);
+    assertThat(actual).isEqualTo(JJson.parse(expected));
+    try (var ch = newChannel(INPUT)) {
+      assertThat(JJson.parse(ch, 4, projection)).isEqualTo(actual);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"[1, {\"a\": 2}]", "{\"a\": [1, 2]}", "\"a\"", "1", "true"})
+  void parseWholeValue(String input) throws IOException {
+    var actual = JJson.parse(input.getBytes(StandardCharsets.UTF_8), Projection.of(""));
+    assertThat(actual).isEqualTo(JJson.parse(input));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "1", "\"a\""})
+  void parseNothing(String input) throws IOException {
+    assertThat(JJson.parse(input.getBytes(StandardCharsets.UTF_8), Projection.of("/a"))).isEmpty();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"a", "/a~", "/a~2"})
+  void throwExceptionForInvalidPath(String path) {
+    assertThatThrownBy(() -> Projection.of(path))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Invalid JSON Pointer: " + path);
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "{\"a\": 1, \"b\": [1, }       | Unexpected end of input",
+      "{\"a\": 1, \"b\" [1]}         | Unexpected token 'LeftBracket' at 1:14",
+      "{\"a\": 1, \"b\": }           | Unexpected character '}' at 1:15",
+      "{\"a\": [1, 2 3]}             | Unexpected token 'Integer' at 1:13",
+  })
+  void throwExceptionForInvalidStructure(String input, String message) {
+    assertThatThrownBy(() -> JJson.parse(input.getBytes(StandardCharsets.UTF_8), Projection.of("/a")))
+        .isInstanceOf(ParserException.class)
+        .hasMessage(message);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"{\"a\": 1, \"b\": [1, tru, \"\\x\"]}", "{\"b\": -, \"a\": 1}"})
+  void skipInvalidValuesNotSelected(String input) {
+    var actual = JJson.parse(input.getBytes(StandardCharsets.UTF_8), Projection.of("/a"));
+    assertThat(actual).contains(new JsonObject(TestFunctions.sequencedMapOf("a", new JsonInteger(1))));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"{\"a\": [tru, \"\\x\", -, 1]}", "{\"a\": [\"\\u30\", [x], {:}, 1, 01x]}"})
+  void skipInvalidElementsNotSelected(String input) throws IOException {
+    var projection = Projection.of("/a/3");
+    var actual = JJson.parse(input.getBytes(StandardCharsets.UTF_8), projection);
+    assertThat(actual).contains(new JsonObject(TestFunctions.sequencedMapOf("a", new JsonArray(new JsonInteger(1)))));
+    try (var ch = newChannel(input)) {
+      assertThat(JJson.parse(ch, 4, projection)).isEqualTo(actual);
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "[1, 2                       | Unexpected end of input",
+      "[1 2]                       | Unexpected token 'Integer' at 1:4",
+      "[1, ]                       | Unexpected character ']' at 1:5",
+      "[}                          | Unexpected character '}' at 1:2",
+  })
+  void throwExceptionForInvalidElementsNotSelected(String input, String message) {
+    assertThatThrownBy(() -> JJson.parse(input.getBytes(StandardCharsets.UTF_8), Projection.of("/9")))
+        .isInstanceOf(ParserException.class)
+        .hasMessage(message);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/user/id", "/items/*/price", "/items/1", "/items/2/price/1", "/a~1b/c~0d", "/nothing"})
+  void parseWithStructuralIndex(String path) {
+    var bytes = INPUT.getBytes(StandardCharsets.UTF_8);
+    assertThat(parseWithStructuralIndex(bytes, Projection.of(path)))
+        .isEqualTo(JJson.parse(bytes, Projection.of(path)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"b\": [1,\n \"\\\"]\", {\"あ\": 2}],\n \"a\": 1 x}",
+      "{\"b\": \"\\\"\nx\", \"a\": [1, 2 3]}",
+      "{\"b\": [[1], {\"c\": [}\n",
+      "{\"b\": \"abc",
+      "[[1,\n \"]\"], x]",
+  })
+  void throwExceptionWithStructuralIndex(String input) {
+    var bytes = input.getBytes(StandardCharsets.UTF_8);
+    var projection = Projection.of("/a", "/1");
+    var expected = catchThrowable(() -> JJson.parse(bytes, projection));
+    assertThat(expected).isInstanceOf(ParserException.class);
+    assertThatThrownBy(() -> parseWithStructuralIndex(bytes, projection))
+        .isInstanceOf(ParserException.class)
+        .hasMessage(expected.getMessage());
+  }
+
+  @Test
+  void skipElementsOfEmptyArray() {
+    assertThat(JJson.parse("[ ]".getBytes(StandardCharsets.UTF_8), Projection.of("/1"))).contains(JsonArray.EMPTY);
+  }
+
+  @Test
+  void checkDepthOfValuesRead() throws IOException {
+    var input = "{\"a\": [[[[1]]]], \"b\": {\"c\": [2]}}";
+    var projection = Projection.of("/b/c/0");
+    try (var ch = newChannel(input)) {
+      assertThat(JJson.parse(ch, 4, ParserOptions.DEFAULT.withMaxDepth(3), projection))
+          .contains(JJson.parse("{\"b\": {\"c\": [2]}}").orElseThrow());
+    }
+    try (var ch = newChannel(input)) {
+      assertThatThrownBy(() -> JJson.parse(ch, 4, ParserOptions.DEFAULT.withMaxDepth(2), projection))
+          .isInstanceOf(ParserException.class)
+          .hasMessage("Maximum depth of 2 exceeded at 1:29");
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/user/id", "/items/*/price, /a~1b"})
+  void describePaths(String paths) {
+    assertThat(Projection.of(paths.split(", "))).hasToString("Projection[" + paths + "]");
+  }
+
+  private static Optional<JsonValue> parseWithStructuralIndex(byte[] bytes, Projection projection) {
+    var options = ParserOptions.DEFAULT.withStructuralIndex(true);
+    var reader = new JsonReader(new Lexer(new ArraySource(bytes, 0, bytes.length), options), options);
+    return new ProjectionParser(reader, options).parse(projection);
+  }
+}
@@ -6,6 +6,8 @@ import static com.sciencesakura.jjsonp.core.TestFunctions.newChannel;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
 class SourceTest {
@@ -13,40 +15,67 @@ class SourceTest {
   @Test
   void bufferSizeIsLessThanInput() throws IOException {
     try (var ch = newChannel(0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08)) {
-      var source = new Source(ch, 4);
-      assertThat(source.read()).isEqualTo(0x01);
-      assertThat(source.read()).isEqualTo(0x02);
-      assertThat(source.read()).isEqualTo(0x03);
-      assertThat(source.read()).isEqualTo(0x04);
-      assertThat(source.read()).isEqualTo(0x05);
-      assertThat(source.read()).isEqualTo(0x06);
-      assertThat(source.read()).isEqualTo(0x07);
-      assertThat(source.read()).isEqualTo(0x08);
-      assertThat(source.read()).isEqualTo(-1);
+      var source = new ChannelSource(ch, 4);
+      assertThat(window(source)).containsExactly(0x01, 0x02, 0x03, 0x04);
+      source.position = source.limit;
+      assertThat(source.fill()).isTrue();
+      assertThat(window(source)).containsExactly(0x05, 0x06, 0x07, 0x08);
+      source.position = source.limit;
+      assertThat(source.fill()).isFalse();
+      assertThat(window(source)).isEmpty();
     }
   }
 
   @Test
-  void bytesCanBePushedBackAndReadAgain() throws IOException {
+  void unreadBytesAreKeptWhenFilled() throws IOException {
     try (var ch = newChannel(0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08)) {
-      var source = new Source(ch, 4);
-      assertThat(source.read()).isEqualTo(0x01);
-      assertThat(source.read()).isEqualTo(0x02);
-      assertThat(source.read()).isEqualTo(0x03);
-      assertThat(source.read()).isEqualTo(0x04);
-      assertThat(source.read()).isEqualTo(0x05);
-      source.back(0x03, 0x04, 0x05);
-      assertThat(source.read()).isEqualTo(0x03);
-      assertThat(source.read()).isEqualTo(0x04);
-      assertThat(source.read()).isEqualTo(0x05);
-      assertThat(source.read()).isEqualTo(0x06);
-      assertThat(source.read()).isEqualTo(0x07);
-      assertThat(source.read()).isEqualTo(0x08);
-      source.back(0x06, 0x07, 0x08);
-      assertThat(source.read()).isEqualTo(0x06);
-      assertThat(source.read()).isEqualTo(0x07);
-      assertThat(source.read()).isEqualTo(0x08);
-      assertThat(source.read()).isEqualTo(-1);
+      var source = new ChannelSource(ch, 4);
+      source.position = 2;
+      assertThat(source.ensure(4)).isTrue();
+      assertThat(window(source)).containsExactly(0x03, 0x04, 0x05, 0x06);
+      source.position = 3;
+      assertThat(source.ensure(4)).isFalse();
+      assertThat(window(source)).containsExactly(0x06, 0x07, 0x08);
     }
   }
+
+  @Test
+  void bufferGrowsWhenFull() throws IOException {
+    try (var ch = newChannel(0x01, 0x02, 0x03, 0x04, 0x05, 0x06)) {
+      var source = new ChannelSource(ch, 4);
+      assertThat(source.ensure(6)).isTrue();
+      assertThat(window(source)).containsExactly(0x01, 0x02, 0x03, 0x04, 0x05, 0x06);
+    }
+  }
+
+  @Test
+  void arrayIsReadInPlace() {
+    var bytes = new byte[]{0x01, 0x02, 0x03, 0x04};
+    var source = new ArraySource(bytes, 1, 2);
+    assertThat(source.buffer).isSameAs(bytes);
+    assertThat(window(source)).containsExactly(0x02, 0x03);
+    assertThat(source.fill()).isFalse();
+  }
+
+  @Test
+  void segmentIsCopiedIntoWindow() {
+    var segment = MemorySegment.ofArray(new byte[]{0x01, 0x02, 0x03, (byte) 0xFF, 0x05});
+    var source = new SegmentSource(segment, 4);
+    assertThat(source.fill()).isTrue();
+    assertThat(window(source)).containsExactly(0x01, 0x02, 0x03, 0xFF);
+    source.position = 3;
+    assertThat(source.fill()).isTrue();
+    assertThat(window(source)).containsExactly(0xFF, 0x05);
+    source.position = source.limit;
+    assertThat(source.fill()).isFalse();
+  }
+
+  private static int[] window(Source source) {
+    var bytes = Arrays.copyOfRange(source.buffer, source.position, source.limit);
+    var window = new int[bytes.length];
+    for (var i = 0; i < bytes.length; i++) {
+      window[i] = Byte.toUnsignedInt(bytes[i]);
+    }
+    return window;
+  }
 }
@@ -0,0 +1,96 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class StructuralIndexTest {
+
+  @Test
+  void indexStructuralCharacters() {
+    var input = "{\"a\" : [1, true, \"{]\"], \"b\": null}";
+    var actual = positions(input.getBytes(StandardCharsets.UTF_8), 0, input.length());
+    assertThat(actual).containsExactly(0, 1, 3, 5, 7, 8, 9, 11, 15, 17, 20, 21, 22, 24, 26, 27, 29, 33);
+  }
+
+  @Test
+  void indexRange() {
+    var bytes = "xx[1, 2]yy".getBytes(StandardCharsets.UTF_8);
+    var actual = positions(bytes, 2, 8);
+    assertThat(actual).containsExactly(2, 3, 4, 6, 7);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/array-01.json", "/object-01.json"})
+  void indexResource(String name) throws IOException {
+    try (var stream = getClass().getResourceAsStream(name)) {
+      var bytes = stream.readAllBytes();
+      assertThat(positions(bytes, 0, bytes.length)).isEqualTo(expected(bytes));
+    }
+  }
+
+  @Test
+  void indexEscapeSequencesAcrossBlocks() {
+    for (var padding = 0; padding < 70; padding++) {
+      for (var backslashes = 1; backslashes <= 4; backslashes++) {
+        var input = " ".repeat(padding) + "[\"" + "\\\\".repeat(backslashes) + "\\\"x\", 12, \"y\"]";
+        var bytes = input.getBytes(StandardCharsets.UTF_8);
+        assertThat(positions(bytes, 0, bytes.length)).as(input).isEqualTo(expected(bytes));
+      }
+    }
+  }
+
+  @Test
+  void indexLongStrings() {
+    var input = "[\"" + "{[:,]} ".repeat(30) + "\", false, -1.5e3, \"" + "\\\"".repeat(40) + "\"]";
+    var bytes = input.getBytes(StandardCharsets.UTF_8);
+    assertThat(positions(bytes, 0, bytes.length)).isEqualTo(expected(bytes));
+  }
+
+  private static List<Integer> positions(byte[] bytes, int from, int to) {
+    var index = StructuralIndex.build(bytes, from, to);
+    var positions = new ArrayList<Integer>();
+    for (var i = 0; i < index.size(); i++) {
+      positions.add(index.get(i));
+    }
+    return positions;
+  }
+
+  private static List<Integer> expected(byte[] bytes) {
+    var positions = new ArrayList<Integer>();
+    var inString = false;
+    var escaped = false;
+    var predecessor = true;
+    for (var i = 0; i < bytes.length; i++) {
+      var c = bytes[i];
+      if (inString) {
+        if (escaped) {
+          escaped = false;
+        } else if (c == '\\') {
+          escaped = true;
+        } else if (c == '"') {
+          positions.add(i);
+          inString = false;
+        }
+        predecessor = c == '"';
+        continue;
+      }
+      var structural = c == '{' || c == '}' || c == '[' || c == ']' || c == ':' || c == ',';
+      var whitespace = Characters.isWhitespace(c);
+      if (structural || c == '"' || (!whitespace && predecessor)) {
+        positions.add(i);
+      }
+      inString = c == '"';
+      predecessor = structural || whitespace || c == '"';
+    }
+    return positions;
+  }
+}
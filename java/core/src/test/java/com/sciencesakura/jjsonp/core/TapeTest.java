@@ -0,0 +1,171 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static com.sciencesakura.jjsonp.core.TestFunctions.newChannel;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.foreign.Arena;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TapeTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[1, 2, 3]",
+      "[[1, 2], {\"a\": [3, {\"b\": 4}]}, [], {}, \"x\", true, false, null, 1.5, -2e3, -9223372036854775808]",
+      "{\"a\": 1, \"b\": [2, 3], \"c\": {\"d\": 4, \"e\": 5}, \"f\": \"g,h\", \"i\": null}",
+      "{\"a\": 1, \"b\": 2, \"a\": 3, \"c\": 4, \"b\": 5}",
+      "{\"\\u3042\": {}, \"a\\nb\": [], \"\": \"\"}",
+      "[12345678901234567890123, 0.1, 1e400]",
+      "\"abc\"",
+      "-12.5",
+      "",
+  })
+  void parseLikeParser(String input) throws IOException {
+    var bytes = input.getBytes(StandardCharsets.UTF_8);
+    var actual = JJson.parseCompact(bytes);
+    var expected = JJson.parse(bytes);
+    assertThat(actual).isEqualTo(expected);
+    assertThat(actual.map(JsonValue::toString)).isEqualTo(expected.map(JsonValue::toString));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"/array-01.json", "/object-01.json"})
+  void parseResource(String name) throws IOException {
+    try (var stream = getClass().getResourceAsStream(name)) {
+      var bytes = stream.readAllBytes();
+      var actual = JJson.parseCompact(bytes).orElseThrow();
+      var expected = JJson.parse(bytes).orElseThrow();
+      assertThat(actual).isEqualTo(expected).hasSameHashCodeAs(expected).hasToString(expected.toString());
+    }
+  }
+
+  @Test
+  void accessArray() {
+    var array = (JsonArray) JJson.parseCompact("[10, [20, 21], {\"a\": 30}, \"40\"]".getBytes(StandardCharsets.UTF_8))
+        .orElseThrow();
+    assertThat(array.size()).isEqualTo(4);
+    assertThat(array.get(3)).isEqualTo(new JsonString("40"));
+    assertThat(array.get(1)).isEqualTo(new JsonArray(new JsonInteger(20), new JsonInteger(21)));
+    assertThat(array.get(0)).isEqualTo(new JsonInteger(10));
+    assertThatThrownBy(() -> array.get(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    var elements = new ArrayList<JsonValue>();
+    array.forEach(elements::add);
+    assertThat(elements).hasSize(4).endsWith(new JsonString("40"));
+  }
+
+  @Test
+  void accessObject() throws IOException {
+    var small = "{\"a\": 1, \"b\": 2, \"a\": 3}";
+    var large = new StringBuilder("{");
+    for (var i = 0; i < 100; i++) {
+      large.append("\"k").append(i).append("\": ").append(i).append(", ");
+    }
+    large.append("\"k0\": -1}");
+    for (var input : new String[] {small, large.toString()}) {
+      var object = (JsonObject) JJson.parseCompact(input.getBytes(StandardCharsets.UTF_8)).orElseThrow();
+      var expected = (JsonObject) JJson.parse(input.getBytes(StandardCharsets.UTF_8)).orElseThrow();
+      assertThat(object.size()).isEqualTo(expected.size());
+      assertThat(object.names()).isEqualTo(expected.names());
+      for (var name : expected.names()) {
+        assertThat(object.get(name)).isEqualTo(expected.get(name));
+      }
+      assertThatThrownBy(() -> object.get("z")).isInstanceOf(NoSuchElementException.class);
+    }
+  }
+
+  @Test
+  void parseWithOptions() throws IOException {
+    var options = ParserOptions.DEFAULT.withExactDecimals(true).withMaxDepth(2);
+    var actual = JJson.parseCompact(newChannel("[0.1, [2]]"), 4, options);
+    assertThat(actual).contains(new JsonArray(new JsonDecimal(new BigDecimal("0.1")),
+        new JsonArray(new JsonInteger(2))));
+    assertThatThrownBy(() -> JJson.parseCompact(newChannel("[[[1]]]"), 4, options))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Maximum depth of 2 exceeded at 1:3");
+    assertThatThrownBy(() -> JJson.parseCompact("[1, 2".getBytes(StandardCharsets.UTF_8)))
+        .isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected end of input");
+  }
+
+  @Test
+  void parseOffHeap() throws IOException {
+    var input = "{\"a\": [1, 2.5, \"x\"], \"b\": {\"c\": null}, \"d\": 12345678901234567890123}";
+    var expected = JJson.parse(input.getBytes(StandardCharsets.UTF_8)).orElseThrow();
+    try (var arena = Arena.ofConfined()) {
+      var fromBytes = JJson.parseCompact(input.getBytes(StandardCharsets.UTF_8), ParserOptions.DEFAULT, arena);
+      var fromChannel = JJson.parseCompact(newChannel(input), 4, ParserOptions.DEFAULT, arena);
+      assertThat(fromBytes).contains(expected);
+      assertThat(fromChannel).contains(expected);
+      assertThat(JJson.parseCompact(new byte[0], ParserOptions.DEFAULT, arena)).isEmpty();
+    }
+  }
+
+  @Test
+  void parseLargeOffHeap() throws IOException {
+    // grows both the entries and the pool several times
+    var json = new StringBuilder("[");
+    for (var i = 0; i < 1000; i++) {
+      json.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"name\": \"n").append(i).append("\"}");
+    }
+    var bytes = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    var expected = JJson.parse(bytes).orElseThrow();
+    try (var arena = Arena.ofConfined()) {
+      assertThat(JJson.parseCompact(bytes, ParserOptions.DEFAULT, arena)).contains(expected);
+    }
+  }
+
+  @Test
+  void freeOffHeapWhenArenaClosed() {
+    var arena = Arena.ofShared();
+    var object = (JsonObject) JJson.parseCompact("{\"a\": [1, \"x\"]}".getBytes(StandardCharsets.UTF_8),
+        ParserOptions.DEFAULT, arena).orElseThrow();
+    var array = (JsonArray) object.get("a");
+    var element = array.get(1);
+    arena.close();
+    assertThat(element).isEqualTo(new JsonString("x"));
+    assertThatThrownBy(() -> object.get("a")).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> array.get(0)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void accessOffHeapFromOwnerThread() throws Exception {
+    try (var arena = Arena.ofConfined()) {
+      var array = (JsonArray) JJson.parseCompact("[1]".getBytes(StandardCharsets.UTF_8), ParserOptions.DEFAULT, arena)
+          .orElseThrow();
+      var thread = new Thread(() -> assertThatThrownBy(() -> array.get(0)).isInstanceOf(WrongThreadException.class));
+      var failure = new Throwable[1];
+      thread.setUncaughtExceptionHandler((t, e) -> failure[0] = e);
+      thread.start();
+      thread.join();
+      assertThat(failure[0]).isNull();
+      assertThat(array.get(0)).isEqualTo(new JsonInteger(1));
+    }
+  }
+
+  @Test
+  void serializeAsParsed() throws Exception {
+    var bytes = "{\"a\": [1, {\"b\": null}], \"c\": \"d\"}".getBytes(StandardCharsets.UTF_8);
+    var value = JJson.parseCompact(bytes).orElseThrow();
+    var out = new ByteArrayOutputStream();
+    try (var stream = new ObjectOutputStream(out)) {
+      stream.writeObject(value);
+    }
+    try (var stream = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      assertThat(stream.readObject()).isEqualTo(JJson.parse(bytes).orElseThrow());
+    }
+  }
+}
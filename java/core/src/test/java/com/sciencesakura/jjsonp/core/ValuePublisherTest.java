@@ -0,0 +1,268 @@
+// SPDX-License-Identifier: GPL-3.0-or-later
+
+package com.sciencesakura.jjsonp.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ValuePublisherTest {
+
+  @Test
+  void publishElements() {
+    var upstream = new ChunkPublisher("[1, {\"a\": [", "2]}, \"b", "c\"", ", null]");
+    var subscriber = new Recorder();
+    JJson.publishArray(upstream).subscribe(subscriber);
+    subscriber.request(Long.MAX_VALUE);
+    assertThat(subscriber.values).containsExactly(
+        new JsonInteger(1),
+        new JsonObject(TestFunctions.sequencedMapOf("a", new JsonArray(new JsonInteger(2)))),
+        new JsonString("bc"),
+        JsonNull.INSTANCE);
+    assertThat(subscriber.completed).isTrue();
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test
+  void publishValues() {
+    var upstream = new ChunkPublisher("{\"a\": 1}\n[tr", "ue]\n\"x\"\n1", "2");
+    var subscriber = new Recorder();
+    JJson.publishAll(upstream).subscribe(subscriber);
+    subscriber.request(Long.MAX_VALUE);
+    assertThat(subscriber.values).containsExactly(
+        new JsonObject(TestFunctions.sequencedMapOf("a", new JsonInteger(1))),
+        new JsonArray(JsonBool.TRUE),
+        new JsonString("x"),
+        new JsonInteger(12));
+    assertThat(subscriber.completed).isTrue();
+  }
+
+  @Test
+  void requestUpstreamOnDemand() {
+    var upstream = new ChunkPublisher("[1, 2, ", "3, 4", ", 5]");
+    var subscriber = new Recorder();
+    JJson.publishArray(upstream).subscribe(subscriber);
+    assertThat(upstream.requested).isZero();
+    subscriber.request(1);
+    assertThat(upstream.requested).isEqualTo(1);
+    assertThat(subscriber.values).containsExactly(new JsonInteger(1));
+    subscriber.request(1);
+    assertThat(upstream.requested).isEqualTo(1);
+    assertThat(subscriber.values).hasSize(2);
+    subscriber.request(1);
+    assertThat(upstream.requested).isEqualTo(2);
+    assertThat(subscriber.values).hasSize(3);
+    subscriber.request(2);
+    assertThat(upstream.requested).isEqualTo(3);
+    assertThat(subscriber.values).hasSize(5);
+    assertThat(subscriber.completed).isTrue();
+  }
+
+  @Test
+  void cancelUpstreamAfterArray() {
+    var upstream = new ChunkPublisher("[1] ", "garbage");
+    var subscriber = new Recorder();
+    JJson.publishArray(upstream).subscribe(subscriber);
+    subscriber.request(Long.MAX_VALUE);
+    assertThat(subscriber.values).containsExactly(new JsonInteger(1));
+    assertThat(subscriber.completed).isTrue();
+    assertThat(upstream.cancelled).isTrue();
+    assertThat(upstream.requested).isEqualTo(1);
+  }
+
+  @Test
+  void completeOnEmptyInput() {
+    var subscriber = new Recorder();
+    JJson.publishArray(new ChunkPublisher(" ")).subscribe(subscriber);
+    subscriber.request(1);
+    assertThat(subscriber.values).isEmpty();
+    assertThat(subscriber.completed).isTrue();
+  }
+
+  @Test
+  void signalErrorOnNonArray() {
+    var upstream = new ChunkPublisher("{\"a\": 1}");
+    var subscriber = new Recorder();
+    JJson.publishArray(upstream).subscribe(subscriber);
+    subscriber.request(1);
+    assertThat(subscriber.error).isInstanceOf(ParserException.class);
+    assertThat(subscriber.completed).isFalse();
+    assertThat(upstream.cancelled).isTrue();
+  }
+
+  @Test
+  void signalErrorOnInvalidInput() {
+    var upstream = new ChunkPublisher("[1, ", "]");
+    var subscriber = new Recorder();
+    JJson.publishArray(upstream).subscribe(subscriber);
+    subscriber.request(Long.MAX_VALUE);
+    assertThat(subscriber.values).containsExactly(new JsonInteger(1));
+    assertThat(subscriber.error).isInstanceOf(ParserException.class)
+        .hasMessage("Unexpected token 'RightBracket' at 1:5");
+    assertThat(upstream.cancelled).isTrue();
+  }
+
+  @Test
+  void signalErrorOnNonPositiveRequest() {
+    var upstream = new ChunkPublisher("[1]");
+    var subscriber = new Recorder();
+    JJson.publishArray(upstream).subscribe(subscriber);
+    subscriber.request(0);
+    assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    assertThat(upstream.cancelled).isTrue();
+  }
+
+  @Test
+  void propagateSubscriberException() {
+    var upstream = new ChunkPublisher("[1, 2]");
+    Recorder subscriber = new Recorder() {
+
+      @Override
+      public void onNext(JsonValue item) {
+        throw new IllegalStateException("broken");
+      }
+    };
+    JJson.publishArray(upstream).subscribe(subscriber);
+    assertThatThrownBy(() -> subscriber.request(1))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("broken");
+    assertThat(subscriber.error).isNull();
+    assertThat(upstream.cancelled).isTrue();
+  }
+
+  @Test
+  void publishAsynchronously() throws Exception {
+    var bytes = new StringBuilder("[");
+    for (var i = 0; i < 1000; i++) {
+      bytes.append(i == 0 ? "" : ",").append(i);
+    }
+    bytes.append(']');
+    var values = new ArrayList<JsonValue>();
+    CompletableFuture<Void> future;
+    try (var upstream = new SubmissionPublisher<ByteBuffer>()) {
+      future = consume(JJson.publishArray(upstream), values);
+      var data = bytes.toString().getBytes(StandardCharsets.UTF_8);
+      for (var i = 0; i < data.length; i += 7) {
+        upstream.submit(ByteBuffer.wrap(data, i, Math.min(7, data.length - i)));
+      }
+    }
+    future.get(10, TimeUnit.SECONDS);
+    assertThat(values).hasSize(1000).last().isEqualTo(new JsonInteger(999));
+  }
+
+  private static CompletableFuture<Void> consume(Flow.Publisher<JsonValue> publisher, List<JsonValue> values) {
+    var future = new CompletableFuture<Void>();
+    publisher.subscribe(new Flow.Subscriber<>() {
+
+      private Flow.Subscription subscription;
+
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+      }
+
+      @Override
+      public void onNext(JsonValue item) {
+        values.add(item);
+        subscription.request(1);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        future.completeExceptionally(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        future.complete(null);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * A synchronous publisher of the given chunks, which records the requests.
+   */
+  private static final class ChunkPublisher implements Flow.Publisher<ByteBuffer> {
+
+    private final String[] chunks;
+
+    private int next;
+
+    private long requested;
+
+    private boolean cancelled;
+
+    ChunkPublisher(String... chunks) {
+      this.chunks = chunks;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+
+        @Override
+        public void request(long n) {
+          for (var i = 0; i < n && !cancelled && next < chunks.length; i++) {
+            requested++;
+            subscriber.onNext(ByteBuffer.wrap(chunks[next++].getBytes(StandardCharsets.UTF_8)));
+          }
+          if (!cancelled && next == chunks.length) {
+            next++;
+            subscriber.onComplete();
+          }
+        }
+
+        @Override
+        public void cancel() {
+          cancelled = true;
+        }
+      });
+    }
+  }
+
+  private static class Recorder implements Flow.Subscriber<JsonValue> {
+
+    private final List<JsonValue> values = new ArrayList<>();
+
+    private Flow.Subscription subscription;
+
+    private boolean completed;
+
+    private Throwable error;
+
+    void request(long n) {
+      subscription.request(n);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(JsonValue item) {
+      values.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}